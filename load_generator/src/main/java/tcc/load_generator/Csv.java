@@ -0,0 +1,41 @@
+package tcc.load_generator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class Csv {
+
+  private Csv() {
+  }
+
+  /**
+   * Divide uma linha CSV em campos, respeitando campos entre aspas e aspas duplicadas.
+   */
+  static List<String> split(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder current = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          current.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          current.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(current.toString());
+        current.setLength(0);
+      } else {
+        current.append(c);
+      }
+    }
+    fields.add(current.toString());
+    return fields;
+  }
+}
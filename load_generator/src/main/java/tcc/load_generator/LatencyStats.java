@@ -0,0 +1,61 @@
+package tcc.load_generator;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latências (HdrHistogram, em microssegundos) e erros por endpoint. Os {@link Recorder}s
+ * permitem gravar de várias threads e trocar o intervalo medido sem pausar a carga.
+ */
+public class LatencyStats {
+
+  private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+  private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+  public void record(String name, long latencyNanos, boolean error) {
+    Endpoint endpoint = endpoints.computeIfAbsent(name, key -> new Endpoint());
+    endpoint.recorder.recordValue(Math.min(MAX_MICROS, Math.max(1, latencyNanos / 1000)));
+    if (error) {
+      endpoint.errors.increment();
+    }
+  }
+
+  /**
+   * Fecha o intervalo atual e devolve o que foi gravado nele, por endpoint em ordem de nome.
+   */
+  public Map<String, Result> drain() {
+    Map<String, Result> results = new TreeMap<>();
+    endpoints.forEach((name, endpoint) -> results.put(name,
+        new Result(endpoint.recorder.getIntervalHistogram(), endpoint.errors.sumThenReset())));
+    return results;
+  }
+
+  private static final class Endpoint {
+    private final Recorder recorder = new Recorder(MAX_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+  }
+
+  public static final class Result {
+    private final Histogram histogram;
+    private final long errors;
+
+    Result(Histogram histogram, long errors) {
+      this.histogram = histogram;
+      this.errors = errors;
+    }
+
+    public Histogram histogram() {
+      return histogram;
+    }
+
+    public long errors() {
+      return errors;
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package tcc.load_generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Gerador de carga do fluxo pedido → produto. Sobe os dois serviços em portas aleatórias
+ * (ou usa serviços já em execução), importa o catálogo, aplica o cenário e imprime p50, p99,
+ * p99.9 e taxa de erros por endpoint.
+ *
+ * <p>Execução: {@code ./gradlew run --args="--mode=open --rate=200 --duration=60s"}.
+ */
+public class LoadGenerator {
+
+  public static void main(String[] args) throws Exception {
+    LoadOptions options = LoadOptions.parse(args);
+    ObjectMapper objectMapper = new ObjectMapper();
+    HttpClient httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    try (ServiceLauncher services = ServiceLauncher.start(options, httpClient)) {
+      Workload workload = Workload.prepare(options, services, httpClient, objectMapper);
+      Report report = new LoadRunner(options, httpClient, workload).run();
+
+      report.print(System.out);
+      report.writeJson(options.output(), objectMapper);
+      System.out.printf("%nRelatório salvo em %s%n", options.output());
+    }
+    // Encerra as threads do HttpClient
+    System.exit(0);
+  }
+}
@@ -0,0 +1,151 @@
+package tcc.load_generator;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parâmetros da execução, no formato {@code --chave=valor}.
+ */
+public class LoadOptions {
+
+  public enum Mode {
+    /** Taxa de chegada fixa: as requisições saem no horário previsto, independentemente das respostas. */
+    OPEN,
+    /** Número fixo de clientes: cada um envia a próxima requisição ao receber a resposta. */
+    CLOSED
+  }
+
+  private final Map<String, String> values;
+
+  private LoadOptions(Map<String, String> values) {
+    this.values = values;
+  }
+
+  public static LoadOptions parse(String[] args) {
+    Map<String, String> values = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--")) {
+        throw new IllegalArgumentException("Argumento inválido: " + arg);
+      }
+      int separator = arg.indexOf('=');
+      if (separator < 0) {
+        values.put(arg.substring(2), "true");
+      } else {
+        values.put(arg.substring(2, separator), arg.substring(separator + 1));
+      }
+    }
+    return new LoadOptions(values);
+  }
+
+  public Mode mode() {
+    return Mode.valueOf(get("mode", "closed").toUpperCase());
+  }
+
+  /** Requisições por segundo no modelo aberto. */
+  public double rate() {
+    return Double.parseDouble(get("rate", "100"));
+  }
+
+  /** Clientes simultâneos no modelo fechado. */
+  public int concurrency() {
+    return Integer.parseInt(get("concurrency", "16"));
+  }
+
+  /** Limite de requisições em andamento no modelo aberto; acima dele a requisição é descartada e contada como erro. */
+  public int maxInFlight() {
+    return Integer.parseInt(get("max-in-flight", "5000"));
+  }
+
+  public Duration duration() {
+    return parseDuration(get("duration", "60s"));
+  }
+
+  public Duration warmup() {
+    return parseDuration(get("warmup", "10s"));
+  }
+
+  public long seed() {
+    return Long.parseLong(get("seed", "42"));
+  }
+
+  public Path scenario() {
+    return Path.of(get("scenario", "scenarios/default.jsonl"));
+  }
+
+  public Path orders() {
+    return Path.of(get("orders", "../pedidos.csv"));
+  }
+
+  public Path products() {
+    return Path.of(get("products", "../produtos.csv"));
+  }
+
+  public Path orderJar() {
+    return Path.of(get("order-jar", "../order_service/build/libs/order_service-0.0.1-SNAPSHOT.jar"));
+  }
+
+  public Path productJar() {
+    return Path.of(get("product-jar",
+        "../product_service/build/libs/product_service-0.0.1-SNAPSHOT.jar"));
+  }
+
+  /** Argumentos extras da JVM dos serviços iniciados, separados por espaço. */
+  public String serviceJvmArgs() {
+    return get("service-jvm-args", "-Xmx512m");
+  }
+
+  /**
+   * Sobe os serviços com {@code spring.threads.virtual.enabled=true}, para comparar o mesmo
+   * cenário com threads virtuais e de plataforma. Exige um runtime Java 21
+   * ({@code --service-java-home}); sem efeito com {@code --order-url}.
+   */
+  public boolean virtualThreads() {
+    return Boolean.parseBoolean(get("virtual-threads", "false"));
+  }
+
+  /** Java usado para iniciar os serviços; por padrão, o mesmo do gerador. */
+  public Path serviceJavaHome() {
+    return Path.of(get("service-java-home", System.getProperty("java.home")));
+  }
+
+  /** URL de um order_service já em execução; quando informada, nenhum serviço é iniciado. */
+  public String orderUrl() {
+    return values.get("order-url");
+  }
+
+  public String productUrl() {
+    return values.get("product-url");
+  }
+
+  public Path workDir() {
+    return Path.of(get("work-dir", "build/load"));
+  }
+
+  public Path output() {
+    return Path.of(get("output", "build/load/report.json"));
+  }
+
+  private String get(String key, String defaultValue) {
+    return values.getOrDefault(key, defaultValue);
+  }
+
+  static Duration parseDuration(String value) {
+    String text = value.trim().toLowerCase();
+    if (text.endsWith("ms")) {
+      return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+    }
+    long amount = Long.parseLong(text.substring(0, text.length() - 1));
+    switch (text.charAt(text.length() - 1)) {
+      case 's':
+        return Duration.ofSeconds(amount);
+      case 'm':
+        return Duration.ofMinutes(amount);
+      case 'h':
+        return Duration.ofHours(amount);
+      default:
+        return Duration.parse(value);
+    }
+  }
+}
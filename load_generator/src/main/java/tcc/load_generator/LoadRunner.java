@@ -0,0 +1,154 @@
+package tcc.load_generator;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Aplica a carga em dois modelos:
+ * <ul>
+ *   <li>fechado: {@code concurrency} clientes, cada um enviando a próxima requisição assim
+ *   que recebe a resposta anterior;</li>
+ *   <li>aberto: requisições disparadas em horários fixos ({@code rate} por segundo), sem
+ *   esperar as respostas. A latência é medida a partir do horário previsto, para que a
+ *   lentidão do servidor não esconda a fila que ela provoca (coordinated omission).</li>
+ * </ul>
+ */
+public class LoadRunner {
+
+  private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(1);
+
+  private final LoadOptions options;
+  private final HttpClient httpClient;
+  private final Workload workload;
+  private final LatencyStats stats = new LatencyStats();
+
+  public LoadRunner(LoadOptions options, HttpClient httpClient, Workload workload) {
+    this.options = options;
+    this.httpClient = httpClient;
+    this.workload = workload;
+  }
+
+  /**
+   * Executa o aquecimento (descartado) seguido da medição.
+   */
+  public Report run() throws InterruptedException {
+    if (!options.warmup().isZero()) {
+      System.out.printf("Aquecimento: %ds%n", options.warmup().toSeconds());
+      runPhase(options.warmup());
+      stats.drain();
+    }
+
+    System.out.printf("Medição: %ds, modelo %s%n", options.duration().toSeconds(),
+        options.mode() == LoadOptions.Mode.OPEN
+            ? String.format("aberto (%.0f req/s)", options.rate())
+            : "fechado (" + options.concurrency() + " clientes)");
+    long start = System.nanoTime();
+    runPhase(options.duration());
+    long elapsedNanos = System.nanoTime() - start;
+
+    Map<String, LatencyStats.Result> results = stats.drain();
+    return new Report(options, results, elapsedNanos);
+  }
+
+  private void runPhase(Duration duration) throws InterruptedException {
+    if (options.mode() == LoadOptions.Mode.OPEN) {
+      runOpen(duration);
+    } else {
+      runClosed(duration);
+    }
+  }
+
+  private void runClosed(Duration duration) throws InterruptedException {
+    long end = System.nanoTime() + duration.toNanos();
+    ExecutorService clients = Executors.newFixedThreadPool(options.concurrency());
+    for (int i = 0; i < options.concurrency(); i++) {
+      Random random = new Random(options.seed() + i);
+      clients.submit(() -> {
+        while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+          sendAndWait(random);
+        }
+      });
+    }
+    clients.shutdown();
+    if (!clients.awaitTermination(duration.plus(DRAIN_TIMEOUT).toMillis(), TimeUnit.MILLISECONDS)) {
+      clients.shutdownNow();
+    }
+  }
+
+  private void sendAndWait(Random random) {
+    Workload.Request request;
+    try {
+      request = workload.next(random);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+
+    long start = System.nanoTime();
+    try {
+      HttpResponse<String> response =
+          httpClient.send(request.httpRequest(), HttpResponse.BodyHandlers.ofString());
+      workload.onResponse(request, response);
+      stats.record(request.name(), System.nanoTime() - start, response.statusCode() >= 400);
+    } catch (IOException e) {
+      stats.record(request.name(), System.nanoTime() - start, true);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void runOpen(Duration duration) throws InterruptedException {
+    long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate());
+    long start = System.nanoTime();
+    long end = start + duration.toNanos();
+    Random random = new Random(options.seed());
+    AtomicInteger inFlight = new AtomicInteger();
+
+    for (long i = 0; ; i++) {
+      long intended = start + i * intervalNanos;
+      if (intended >= end) {
+        break;
+      }
+      long wait;
+      while ((wait = intended - System.nanoTime()) > 0) {
+        LockSupport.parkNanos(wait);
+      }
+
+      Workload.Request request;
+      try {
+        request = workload.next(random);
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+      // Acima do limite a requisição é descartada e contada como erro, sem atrasar as próximas
+      if (inFlight.get() >= options.maxInFlight()) {
+        stats.record(request.name(), System.nanoTime() - intended, true);
+        continue;
+      }
+
+      inFlight.incrementAndGet();
+      httpClient.sendAsync(request.httpRequest(), HttpResponse.BodyHandlers.ofString())
+          .whenComplete((response, error) -> {
+            long latency = System.nanoTime() - intended;
+            if (error == null) {
+              workload.onResponse(request, response);
+            }
+            stats.record(request.name(), latency, error != null || response.statusCode() >= 400);
+            inFlight.decrementAndGet();
+          });
+    }
+
+    long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+    while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+}
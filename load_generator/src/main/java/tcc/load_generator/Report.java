@@ -0,0 +1,121 @@
+package tcc.load_generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Resultado de uma execução: tabela no console e JSON (com o commit atual) para comparar
+ * execuções entre versões.
+ */
+public class Report {
+
+  private static final String TOTAL = "TOTAL";
+
+  private final LoadOptions options;
+  private final Map<String, LatencyStats.Result> results;
+  private final double elapsedSeconds;
+
+  public Report(LoadOptions options, Map<String, LatencyStats.Result> results, long elapsedNanos) {
+    this.options = options;
+    this.results = results;
+    this.elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+  }
+
+  public void print(PrintStream out) {
+    out.printf("%n%-32s %9s %7s %7s %9s %9s %9s %9s %9s%n",
+        "Endpoint", "Req", "Erros", "Erro%", "Req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+    for (Map<String, Object> row : rows()) {
+      out.printf("%-32s %9d %7d %6.2f%% %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+          row.get("endpoint"), row.get("requests"), row.get("errors"),
+          (double) row.get("errorRate") * 100, row.get("throughput"),
+          row.get("p50Ms"), row.get("p99Ms"), row.get("p999Ms"), row.get("maxMs"));
+    }
+  }
+
+  public void writeJson(Path file, ObjectMapper objectMapper) throws IOException {
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put("commit", currentCommit());
+    json.put("timestamp", Instant.now().toString());
+    json.put("mode", options.mode().name().toLowerCase());
+    json.put("virtualThreads", options.virtualThreads());
+    if (options.mode() == LoadOptions.Mode.OPEN) {
+      json.put("rate", options.rate());
+    } else {
+      json.put("concurrency", options.concurrency());
+    }
+    json.put("durationSeconds", elapsedSeconds);
+    json.put("endpoints", rows());
+
+    if (file.getParent() != null) {
+      Files.createDirectories(file.getParent());
+    }
+    Files.writeString(file,
+        objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(json),
+        StandardCharsets.UTF_8);
+  }
+
+  private List<Map<String, Object>> rows() {
+    List<Map<String, Object>> rows = new ArrayList<>();
+    Histogram total = null;
+    long totalErrors = 0;
+    for (Map.Entry<String, LatencyStats.Result> entry : results.entrySet()) {
+      Histogram histogram = entry.getValue().histogram();
+      rows.add(row(entry.getKey(), histogram, entry.getValue().errors()));
+      if (total == null) {
+        total = histogram.copy();
+      } else {
+        total.add(histogram);
+      }
+      totalErrors += entry.getValue().errors();
+    }
+    if (total != null) {
+      rows.add(row(TOTAL, total, totalErrors));
+    }
+    return rows;
+  }
+
+  private Map<String, Object> row(String name, Histogram histogram, long errors) {
+    long requests = histogram.getTotalCount();
+    Map<String, Object> row = new LinkedHashMap<>();
+    row.put("endpoint", name);
+    row.put("requests", requests);
+    row.put("errors", errors);
+    row.put("errorRate", requests == 0 ? 0.0 : errors / (double) requests);
+    row.put("throughput", requests / elapsedSeconds);
+    row.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+    row.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+    row.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+    row.put("maxMs", millis(histogram.getMaxValue()));
+    return row;
+  }
+
+  private static double millis(long micros) {
+    return micros / 1000.0;
+  }
+
+  private static String currentCommit() {
+    try {
+      Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD")
+          .redirectErrorStream(true)
+          .start();
+      String commit = new String(git.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+      return git.waitFor() == 0 ? commit : "desconhecido";
+    } catch (IOException e) {
+      return "desconhecido";
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return "desconhecido";
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package tcc.load_generator;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inicia o product_service e o order_service como processos filhos em portas livres
+ * aleatórias, com o Spring Boot Admin desligado e o order_service apontando para o
+ * product_service local. Com {@code --order-url} e {@code --product-url} usa serviços já em
+ * execução.
+ */
+public class ServiceLauncher implements AutoCloseable {
+
+  private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+  private final List<Process> processes = new ArrayList<>();
+  private final HttpClient httpClient;
+  private String orderUrl;
+  private String productUrl;
+
+  private ServiceLauncher(HttpClient httpClient) {
+    this.httpClient = httpClient;
+  }
+
+  public static ServiceLauncher start(LoadOptions options, HttpClient httpClient)
+      throws IOException, InterruptedException {
+    ServiceLauncher launcher = new ServiceLauncher(httpClient);
+    try {
+      if (options.orderUrl() != null && options.productUrl() != null) {
+        launcher.productUrl = options.productUrl();
+        launcher.orderUrl = options.orderUrl();
+      } else {
+        launcher.launch(options);
+      }
+      launcher.awaitHealthy(launcher.productUrl);
+      launcher.awaitHealthy(launcher.orderUrl);
+    } catch (IOException | InterruptedException | RuntimeException e) {
+      launcher.close();
+      throw e;
+    }
+    return launcher;
+  }
+
+  public String orderUrl() {
+    return orderUrl;
+  }
+
+  public String productUrl() {
+    return productUrl;
+  }
+
+  private void launch(LoadOptions options) throws IOException {
+    Files.createDirectories(options.workDir());
+
+    int productPort = freePort();
+    productUrl = "http://localhost:" + productPort;
+    processes.add(startService(options, "product_service", options.productJar(), productPort));
+
+    int orderPort = freePort();
+    orderUrl = "http://localhost:" + orderPort;
+    processes.add(startService(options, "order_service", options.orderJar(), orderPort,
+        "--product-service.base-url=" + productUrl + "/products"));
+  }
+
+  private Process startService(LoadOptions options, String name, Path jar, int port,
+      String... extraArgs) throws IOException {
+    if (!Files.exists(jar)) {
+      throw new IllegalStateException("Jar não encontrado: " + jar
+          + " (gere com ./gradlew bootJar no diretório do serviço)");
+    }
+
+    List<String> command = new ArrayList<>();
+    command.add(options.serviceJavaHome().resolve("bin").resolve("java").toString());
+    command.addAll(Arrays.asList(options.serviceJvmArgs().trim().split("\\s+")));
+    command.add("-jar");
+    command.add(jar.toString());
+    command.add("--server.port=" + port);
+    command.add("--spring.boot.admin.client.enabled=false");
+    command.add("--logging.file.name=" + options.workDir().resolve(name + ".log"));
+    command.add("--spring.threads.virtual.enabled=" + options.virtualThreads());
+    command.addAll(Arrays.asList(extraArgs));
+
+    System.out.printf("Iniciando %s na porta %d (threads virtuais: %s)%n",
+        name, port, options.virtualThreads() ? "sim" : "não");
+    Path output = options.workDir().resolve(name + ".out");
+    return new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(output.toFile())
+        .start();
+  }
+
+  private void awaitHealthy(String baseUrl) throws InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+        .timeout(Duration.ofSeconds(2))
+        .build();
+    long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+    while (System.nanoTime() < deadline) {
+      for (Process process : processes) {
+        if (!process.isAlive()) {
+          throw new IllegalStateException("Serviço encerrou durante a inicialização (código "
+              + process.exitValue() + "); veja os arquivos .out no diretório de trabalho");
+        }
+      }
+      try {
+        if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+          return;
+        }
+      } catch (IOException e) {
+        // Ainda inicializando
+      }
+      Thread.sleep(500);
+    }
+    throw new IllegalStateException("Tempo esgotado aguardando " + baseUrl);
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      socket.setReuseAddress(true);
+      return socket.getLocalPort();
+    }
+  }
+
+  @Override
+  public void close() {
+    // O order_service é encerrado antes do product_service, do qual depende
+    for (int i = processes.size() - 1; i >= 0; i--) {
+      Process process = processes.get(i);
+      process.destroy();
+      try {
+        if (!process.waitFor(15, TimeUnit.SECONDS)) {
+          process.destroyForcibly();
+        }
+      } catch (InterruptedException e) {
+        process.destroyForcibly();
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,297 @@
+package tcc.load_generator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Carga a ser aplicada: os passos do cenário (JSONL, sorteados por peso), os pedidos do
+ * {@code pedidos.csv} usados como corpo das criações e o catálogo importado do
+ * {@code produtos.csv}.
+ *
+ * <p>Cada linha do cenário tem {@code name}, {@code service} ({@code order} ou
+ * {@code product}), {@code method}, {@code path}, {@code weight} e opcionalmente
+ * {@code body} e {@code capture}. O caminho aceita {@code {orderId}}, {@code {productId}} e
+ * {@code {tableNumber}}; o corpo pode ser um objeto JSON literal, {@code "pedidos"} (próximo
+ * pedido do CSV) ou {@code "productIds"} (lista aleatória de códigos do catálogo).
+ * {@code "capture": "orderId"} guarda o id devolvido para uso em {@code {orderId}}.
+ */
+public class Workload {
+
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+  private static final int CAPTURED_IDS = 10_000;
+
+  private final ObjectMapper objectMapper;
+  private final String orderUrl;
+  private final String productUrl;
+  private final List<Step> steps;
+  private final int[] cumulativeWeights;
+  private final List<String> orderBodies;
+  private final long[] productIds;
+  // Últimos ids de pedidos criados (buffer circular)
+  private final AtomicLongArray orderIds = new AtomicLongArray(CAPTURED_IDS);
+  private final AtomicLong capturedOrders = new AtomicLong();
+
+  private Workload(ObjectMapper objectMapper, String orderUrl, String productUrl,
+      List<Step> steps, List<String> orderBodies, long[] productIds) {
+    this.objectMapper = objectMapper;
+    this.orderUrl = orderUrl;
+    this.productUrl = productUrl;
+    this.steps = steps;
+    this.orderBodies = orderBodies;
+    this.productIds = productIds;
+
+    this.cumulativeWeights = new int[steps.size()];
+    int total = 0;
+    for (int i = 0; i < steps.size(); i++) {
+      total += steps.get(i).weight;
+      cumulativeWeights[i] = total;
+    }
+  }
+
+  /**
+   * Importa o catálogo no product_service, lê o catálogo resultante e carrega o cenário e os
+   * pedidos.
+   */
+  public static Workload prepare(LoadOptions options, ServiceLauncher services,
+      HttpClient httpClient, ObjectMapper objectMapper) throws IOException, InterruptedException {
+    importProducts(options.products(), services.productUrl(), httpClient, objectMapper);
+    long[] productIds = fetchProductIds(services.productUrl(), httpClient, objectMapper);
+    if (productIds.length == 0) {
+      throw new IllegalStateException("Catálogo vazio após a importação de " + options.products());
+    }
+
+    List<String> orderBodies = readOrders(options.orders(), productIds, objectMapper);
+    List<Step> steps = readScenario(options.scenario(), objectMapper);
+    System.out.printf("Catálogo: %d produtos; pedidos de %s: %d; passos do cenário: %d%n",
+        productIds.length, options.orders(), orderBodies.size(), steps.size());
+
+    return new Workload(objectMapper, services.orderUrl(), services.productUrl(), steps,
+        orderBodies, productIds);
+  }
+
+  /**
+   * Sorteia o próximo passo do cenário e monta a requisição correspondente.
+   */
+  public Request next(Random random) throws IOException {
+    int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+    int index = 0;
+    while (cumulativeWeights[index] <= ticket) {
+      index++;
+    }
+    Step step = steps.get(index);
+
+    String baseUrl = "order".equals(step.service) ? orderUrl : productUrl;
+    String path = step.path
+        .replace("{orderId}", String.valueOf(randomOrderId(random)))
+        .replace("{productId}", String.valueOf(productIds[random.nextInt(productIds.length)]))
+        .replace("{tableNumber}", String.valueOf(random.nextInt(30) + 1));
+
+    HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .timeout(REQUEST_TIMEOUT);
+    String body = body(step, random);
+    if (body == null) {
+      builder.method(step.method, HttpRequest.BodyPublishers.noBody());
+    } else {
+      builder.header("Content-Type", "application/json")
+          .method(step.method, HttpRequest.BodyPublishers.ofString(body));
+    }
+    return new Request(step, builder.build());
+  }
+
+  /**
+   * Registra o que o passo pede para capturar da resposta.
+   */
+  public void onResponse(Request request, HttpResponse<String> response) {
+    if (!"orderId".equals(request.step.capture) || response.statusCode() / 100 != 2) {
+      return;
+    }
+    try {
+      JsonNode id = objectMapper.readTree(response.body()).get("id");
+      if (id != null && id.canConvertToLong()) {
+        long slot = capturedOrders.getAndIncrement() % CAPTURED_IDS;
+        orderIds.set((int) slot, id.asLong());
+      }
+    } catch (IOException e) {
+      // Resposta sem JSON: nada a capturar
+    }
+  }
+
+  private long randomOrderId(Random random) {
+    long captured = Math.min(capturedOrders.get(), CAPTURED_IDS);
+    return captured == 0 ? 1 : orderIds.get(random.nextInt((int) captured));
+  }
+
+  private String body(Step step, Random random) throws IOException {
+    if (step.body == null || step.body.isNull()) {
+      return null;
+    }
+    if (step.body.isTextual()) {
+      switch (step.body.asText()) {
+        case "pedidos":
+          return orderBodies.get(random.nextInt(orderBodies.size()));
+        case "productIds":
+          ArrayNode ids = objectMapper.createArrayNode();
+          for (int i = random.nextInt(5) + 1; i > 0; i--) {
+            ids.add(productIds[random.nextInt(productIds.length)]);
+          }
+          return objectMapper.writeValueAsString(ids);
+        default:
+          return step.body.asText();
+      }
+    }
+    return step.literalBody;
+  }
+
+  private static void importProducts(Path csv, String productUrl, HttpClient httpClient,
+      ObjectMapper objectMapper) throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(productUrl + "/products/import"))
+        .header("Content-Type", "text/csv; charset=UTF-8")
+        .POST(HttpRequest.BodyPublishers.ofFile(csv))
+        .build();
+    HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Falha ao importar " + csv + ": HTTP "
+          + response.statusCode() + " " + response.body());
+    }
+    JsonNode result = objectMapper.readTree(response.body());
+    System.out.printf("Catálogo importado de %s: %d criados, %d atualizados, %d com erro%n",
+        csv, result.path("created").asLong(), result.path("updated").asLong(),
+        result.path("failed").asLong());
+  }
+
+  private static long[] fetchProductIds(String productUrl, HttpClient httpClient,
+      ObjectMapper objectMapper) throws IOException, InterruptedException {
+    List<Long> ids = new ArrayList<>();
+    long after = 0;
+    while (true) {
+      HttpRequest request = HttpRequest.newBuilder(
+          URI.create(productUrl + "/products/page?size=500&after=" + after)).build();
+      JsonNode page = objectMapper.readTree(
+          httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body());
+      for (JsonNode item : page.path("items")) {
+        ids.add(item.get("id").asLong());
+      }
+      if (!page.path("nextCursor").canConvertToLong()) {
+        break;
+      }
+      after = page.get("nextCursor").asLong();
+    }
+    return ids.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  /**
+   * Converte as linhas do {@code pedidos.csv} em corpos de criação de pedido. Os códigos do
+   * CSV (1..n) são mapeados para os ids reais do catálogo, na ordem em que foram importados.
+   */
+  private static List<String> readOrders(Path csv, long[] productIds, ObjectMapper objectMapper)
+      throws IOException {
+    List<String> bodies = new ArrayList<>();
+    List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+    for (int i = 1; i < lines.size(); i++) {
+      if (lines.get(i).isBlank()) {
+        continue;
+      }
+      List<String> fields = Csv.split(lines.get(i));
+      ObjectNode order = objectMapper.createObjectNode();
+      order.put("tableNumber", Integer.parseInt(fields.get(0).trim()));
+      ArrayNode products = order.putArray("products");
+      for (JsonNode product : objectMapper.readTree(fields.get(1))) {
+        long code = product.get("productCode").asLong();
+        products.addObject()
+            .put("productCode", productIds[Math.floorMod(code - 1, productIds.length)])
+            .put("quantity", product.get("quantity").asInt());
+      }
+      order.put("status", fields.get(2).trim());
+      bodies.add(objectMapper.writeValueAsString(order));
+    }
+    if (bodies.isEmpty()) {
+      throw new IllegalStateException("Nenhum pedido em " + csv);
+    }
+    return bodies;
+  }
+
+  private static List<Step> readScenario(Path file, ObjectMapper objectMapper) throws IOException {
+    List<Step> steps = new ArrayList<>();
+    for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+      if (line.isBlank()) {
+        continue;
+      }
+      JsonNode node = objectMapper.readTree(line);
+      Step step = new Step(
+          node.get("name").asText(),
+          node.path("service").asText("order"),
+          node.path("method").asText("GET").toUpperCase(),
+          node.get("path").asText(),
+          node.path("weight").asInt(1),
+          node.get("body"),
+          node.path("capture").asText(null));
+      if (step.body != null && step.body.isContainerNode()) {
+        step.literalBody = objectMapper.writeValueAsString(step.body);
+      }
+      steps.add(step);
+    }
+    if (steps.isEmpty()) {
+      throw new IllegalStateException("Cenário vazio: " + file);
+    }
+    return steps;
+  }
+
+  static final class Step {
+    private final String name;
+    private final String service;
+    private final String method;
+    private final String path;
+    private final int weight;
+    private final JsonNode body;
+    private final String capture;
+    private String literalBody;
+
+    private Step(String name, String service, String method, String path, int weight,
+        JsonNode body, String capture) {
+      this.name = name;
+      this.service = service;
+      this.method = method;
+      this.path = path;
+      this.weight = weight;
+      this.body = body;
+      this.capture = capture;
+    }
+  }
+
+  /**
+   * Requisição pronta para envio, com o nome do passo usado para agrupar as estatísticas.
+   */
+  public static final class Request {
+    private final Step step;
+    private final HttpRequest httpRequest;
+
+    private Request(Step step, HttpRequest httpRequest) {
+      this.step = step;
+      this.httpRequest = httpRequest;
+    }
+
+    public String name() {
+      return step.name;
+    }
+
+    public HttpRequest httpRequest() {
+      return httpRequest;
+    }
+  }
+}
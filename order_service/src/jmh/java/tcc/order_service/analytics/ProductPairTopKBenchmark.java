@@ -0,0 +1,65 @@
+package tcc.order_service.analytics;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tcc.order_service.service.ProductCatalogService;
+
+/**
+ * Laço de contagem de pares de produtos executado a cada pedido criado (O(n²) no número de
+ * itens distintos do pedido).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductPairTopKBenchmark {
+
+  private static final int ORDERS = 1024;
+
+  @Param({"2", "5", "10"})
+  private int productsPerOrder;
+
+  @Param({"1000"})
+  private int catalogSize;
+
+  private ProductPairTopK productPairTopK;
+  private List<List<Long>> orders;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    productPairTopK = new ProductPairTopK(new SimpleMeterRegistry(),
+        mock(ProductCatalogService.class, withSettings().stubOnly()), 10);
+
+    Random random = new Random(42);
+    orders = new ArrayList<>(ORDERS);
+    for (int i = 0; i < ORDERS; i++) {
+      List<Long> productIds = new ArrayList<>(productsPerOrder);
+      while (productIds.size() < productsPerOrder) {
+        long productId = random.nextInt(catalogSize) + 1;
+        if (!productIds.contains(productId)) {
+          productIds.add(productId);
+        }
+      }
+      orders.add(productIds);
+    }
+  }
+
+  @Benchmark
+  public void record() {
+    productPairTopK.record(orders.get(next++ & (ORDERS - 1)));
+  }
+}
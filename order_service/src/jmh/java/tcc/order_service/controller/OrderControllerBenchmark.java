@@ -0,0 +1,55 @@
+package tcc.order_service.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tcc.order_service.dto.DelayedOrderDTO;
+import tcc.order_service.model.Order;
+
+/**
+ * Conversão de um pedido atrasado para o DTO da view, executada para cada pedido em cada
+ * snapshot enviado ao painel de atrasados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderControllerBenchmark {
+
+  @Param({"1", "5", "10"})
+  private int productsPerOrder;
+
+  private OrderController orderController;
+  private Order order;
+
+  @Setup
+  public void setUp() {
+    orderController = new OrderController(new SimpleMeterRegistry(), null, null, new ObjectMapper());
+
+    order = new Order();
+    order.setId(1L);
+    order.setTableNumber(7);
+    order.setStatus("pending");
+    order.setCreatedAt(LocalDateTime.now().minusMinutes(5));
+    List<Order.OrderProduct> products = new ArrayList<>(productsPerOrder);
+    for (int i = 0; i < productsPerOrder; i++) {
+      products.add(new Order.OrderProduct((long) i + 1, 2));
+    }
+    order.setProducts(products);
+  }
+
+  @Benchmark
+  public DelayedOrderDTO convertToDto() {
+    return orderController.convertToDto(order);
+  }
+}
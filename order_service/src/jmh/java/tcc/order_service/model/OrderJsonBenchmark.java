@@ -0,0 +1,66 @@
+package tcc.order_service.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * (De)serialização JSON de {@link Order}, com o ObjectMapper configurado como o do Spring
+ * Boot (módulos do classpath e datas em ISO-8601).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderJsonBenchmark {
+
+  @Param({"1", "5", "10"})
+  private int productsPerOrder;
+
+  private ObjectMapper objectMapper;
+  private Order order;
+  private byte[] json;
+
+  @Setup
+  public void setUp() throws IOException {
+    objectMapper = JsonMapper.builder()
+        .findAndAddModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+
+    order = new Order();
+    order.setId(1L);
+    order.setTableNumber(7);
+    order.setStatus("pending");
+    order.setCreatedAt(LocalDateTime.now());
+    order.setLastUpdated(LocalDateTime.now());
+    List<Order.OrderProduct> products = new ArrayList<>(productsPerOrder);
+    for (int i = 0; i < productsPerOrder; i++) {
+      products.add(new Order.OrderProduct((long) i + 1, 2));
+    }
+    order.setProducts(products);
+    json = objectMapper.writeValueAsBytes(order);
+  }
+
+  @Benchmark
+  public byte[] serialize() throws IOException {
+    return objectMapper.writeValueAsBytes(order);
+  }
+
+  @Benchmark
+  public Order deserialize() throws IOException {
+    return objectMapper.readValue(json, Order.class);
+  }
+}
@@ -0,0 +1,129 @@
+package tcc.order_service.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tcc.order_service.OrderServiceApplication;
+import tcc.order_service.model.Order;
+import tcc.order_service.model.OrderStatus;
+
+/**
+ * Consultas de pedidos pendentes (agendador e view de atrasados) sobre o H2 da aplicação,
+ * com um número fixo de pendentes e um histórico crescente de pedidos finalizados. Com o
+ * índice {@code (status, created_at)} o tempo acompanha apenas os pendentes; sem ele
+ * ({@code indexed=false}), cresce com o histórico.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PendingOrderQueryBenchmark {
+
+  private static final int PENDING_ORDERS = 200;
+  private static final int INSERT_BATCH = 5_000;
+
+  @Param({"1000", "10000", "100000"})
+  private int finishedOrders;
+
+  @Param({"true", "false"})
+  private boolean indexed;
+
+  private ConfigurableApplicationContext context;
+  private OrderRepository orderRepository;
+  private LocalDateTime cutoff;
+  private long invocations;
+
+  @Setup
+  public void setUp() {
+    context = new SpringApplicationBuilder(OrderServiceApplication.class)
+        .web(WebApplicationType.NONE)
+        .properties(
+            "spring.datasource.url=jdbc:h2:mem:pending-order-benchmark",
+            "spring.boot.admin.client.enabled=false",
+            "product-service.base-url=http://localhost:1/products",
+            "product-catalog.cache.version-check-interval-ms=3600000",
+            "logging.level.root=ERROR")
+        .run();
+    orderRepository = context.getBean(OrderRepository.class);
+    JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+
+    LocalDateTime now = LocalDateTime.now();
+    cutoff = now.minusMinutes(3);
+
+    // Histórico antigo de finalizados, todo anterior ao corte: só o status os diferencia
+    List<Object[]> rows = new ArrayList<>(INSERT_BATCH);
+    long id = 1;
+    for (int i = 0; i < finishedOrders; i++, id++) {
+      rows.add(orderRow(id, OrderStatus.FINISHED, now.minusDays(1 + i % 365)));
+      if (rows.size() == INSERT_BATCH) {
+        insertOrders(jdbc, rows);
+        rows.clear();
+      }
+    }
+
+    // Metade dos pendentes já passou do corte
+    List<Object[]> items = new ArrayList<>();
+    for (int i = 0; i < PENDING_ORDERS; i++, id++) {
+      rows.add(orderRow(id, OrderStatus.PENDING, now.minusMinutes(i % 2 == 0 ? 10 : 1)));
+      items.add(new Object[] {id, 1L + i % 20, 1});
+      items.add(new Object[] {id, 21L + i % 20, 2});
+    }
+    insertOrders(jdbc, rows);
+    jdbc.batchUpdate(
+        "INSERT INTO order_products (order_id, product_code, quantity) VALUES (?, ?, ?)", items);
+
+    if (!indexed) {
+      jdbc.execute("DROP INDEX idx_orders_status_created_at");
+    }
+    jdbc.execute("ANALYZE");
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<Order> findPendingOrdersOlderThan() {
+    return orderRepository.findPendingOrdersOlderThan(nextCutoff());
+  }
+
+  @Benchmark
+  public List<DelayedOrderRow> findDelayedOrderRows() {
+    return orderRepository.findDelayedOrderRows(nextCutoff());
+  }
+
+  /**
+   * O H2 reaproveita o resultado de uma consulta repetida com os mesmos parâmetros enquanto a
+   * tabela não muda; deslocar o corte em microssegundos força a execução sem alterar as linhas
+   * selecionadas, como acontece no agendador, que usa a hora atual a cada execução.
+   */
+  private LocalDateTime nextCutoff() {
+    return cutoff.plus(invocations++ % 1_000_000, ChronoUnit.MICROS);
+  }
+
+  private static Object[] orderRow(long id, OrderStatus status, LocalDateTime createdAt) {
+    Timestamp timestamp = Timestamp.valueOf(createdAt);
+    return new Object[] {id, (int) (id % 30) + 1, status.name(), timestamp, timestamp};
+  }
+
+  private static void insertOrders(JdbcTemplate jdbc, List<Object[]> rows) {
+    jdbc.batchUpdate("INSERT INTO orders (id, table_number, status, created_at, last_updated) "
+        + "VALUES (?, ?, ?, ?, ?)", rows);
+  }
+}
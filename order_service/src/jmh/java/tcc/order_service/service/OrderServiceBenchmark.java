@@ -0,0 +1,101 @@
+package tcc.order_service.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import tcc.order_service.analytics.ProductPairTopK;
+import tcc.order_service.analytics.ProductSalesStore;
+import tcc.order_service.cache.OrderIdempotencyStore;
+import tcc.order_service.dto.ProductValidationDTO;
+import tcc.order_service.model.Order;
+import tcc.order_service.repository.OrderArchiveRepository;
+import tcc.order_service.repository.OrderRepository;
+
+/**
+ * Custo de {@link OrderService#save(Order)} fora do I/O: validação (catálogo em stub),
+ * métricas de produtos e combinações e publicação do evento. O repositório e o catálogo são
+ * dublês sem registro de invocações, para que a alocação medida seja apenas a do serviço.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderServiceBenchmark {
+
+  private static final int CATALOG_SIZE = 200;
+
+  @Param({"1", "5", "10"})
+  private int productsPerOrder;
+
+  private OrderService orderService;
+  private final AtomicLong ids = new AtomicLong();
+  private long nextProduct;
+
+  @Setup
+  public void setUp() {
+    Map<Long, String> names = new HashMap<>();
+    for (long id = 1; id <= CATALOG_SIZE; id++) {
+      names.put(id, "Produto " + id + " (" + id + ")");
+    }
+    ProductCatalogService productCatalogService =
+        mock(ProductCatalogService.class, withSettings().stubOnly());
+    when(productCatalogService.validateProducts(anyList()))
+        .thenReturn(Mono.just(new ProductValidationDTO(names, List.of())));
+    when(productCatalogService.resolveNames(any())).thenReturn(names);
+
+    OrderRepository orderRepository = mock(OrderRepository.class, withSettings().stubOnly());
+    when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+      Order order = invocation.getArgument(0);
+      order.setId(ids.incrementAndGet());
+      return order;
+    });
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    orderService = new OrderService(
+        orderRepository,
+        mock(OrderArchiveRepository.class, withSettings().stubOnly()),
+        mock(EntityManager.class, withSettings().stubOnly()),
+        productCatalogService,
+        new ProductPairTopK(meterRegistry, productCatalogService, 10),
+        new ProductSalesStore(meterRegistry, productCatalogService, 1024),
+        new OrderIdempotencyStore(meterRegistry, 1024, Duration.ofHours(1)),
+        Schedulers.immediate(),
+        event -> { },
+        meterRegistry);
+  }
+
+  @Benchmark
+  public Order save() {
+    Order order = new Order();
+    order.setTableNumber(1);
+    order.setStatus("pending");
+    List<Order.OrderProduct> products = new ArrayList<>(productsPerOrder);
+    for (int i = 0; i < productsPerOrder; i++) {
+      products.add(new Order.OrderProduct(nextProduct++ % CATALOG_SIZE + 1, 2));
+    }
+    order.setProducts(products);
+    return orderService.save(order);
+  }
+}
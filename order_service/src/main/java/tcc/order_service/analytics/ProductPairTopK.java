@@ -0,0 +1,205 @@
+package tcc.order_service.analytics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tcc.order_service.dto.ProductPairCountDTO;
+import tcc.order_service.service.ProductCatalogService;
+
+/**
+ * Contagem aproximada das combinações de produtos mais vendidas juntas (heavy hitters), com
+ * memória constante independentemente do número de produtos.
+ *
+ * <p>Cada par é contado em um Count-Min sketch ({@link AtomicLongArray}, sem locks) e os
+ * pares com maior estimativa são mantidos em um conjunto limitado de candidatos. O top-N é
+ * exportado como um número fixo de gauges ({@code order.product.combinations.top}) e pelo
+ * endpoint {@code /orders/analytics/top-combinations}.
+ */
+@Component
+public class ProductPairTopK {
+
+  private static final int DEPTH = 4;
+  private static final int WIDTH = 4096;
+  private static final long[] SEEDS = {
+      0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+  };
+
+  private final AtomicLongArray sketch = new AtomicLongArray(DEPTH * WIDTH);
+  // Pares candidatos ao top-N -> última estimativa observada
+  private final Map<Long, Long> candidates = new ConcurrentHashMap<>();
+  private final AtomicBoolean trimming = new AtomicBoolean();
+  private volatile long admissionThreshold;
+
+  private final int topSize;
+  private final int candidateCapacity;
+  private final ProductCatalogService productCatalogService;
+  private final MultiGauge topGauges;
+
+  public ProductPairTopK(
+      MeterRegistry meterRegistry,
+      ProductCatalogService productCatalogService,
+      @Value("${orders.analytics.top-combinations.size:10}") int topSize) {
+    this.productCatalogService = productCatalogService;
+    this.topSize = topSize;
+    this.candidateCapacity = topSize * 8;
+    this.topGauges = MultiGauge.builder("order.product.combinations.top")
+        .description("Estimativa de vendas conjuntas dos pares de produtos mais frequentes")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Conta uma ocorrência de cada par distinto de produtos do pedido. Executado no caminho
+   * de criação do pedido, sem locks.
+   */
+  public void record(List<Long> productIds) {
+    for (int i = 0; i < productIds.size(); i++) {
+      for (int j = i + 1; j < productIds.size(); j++) {
+        long key = pairKey(productIds.get(i), productIds.get(j));
+        if (key != -1) {
+          offer(key, increment(key));
+        }
+      }
+    }
+  }
+
+  /**
+   * Os {@code limit} pares mais frequentes, do maior para o menor, com os nomes resolvidos
+   * no catálogo apenas no momento da consulta.
+   */
+  public List<ProductPairCountDTO> top(int limit) {
+    List<long[]> ranked = candidates.keySet().stream()
+        .map(key -> new long[] {key, estimate(key)})
+        .sorted(Comparator.comparingLong((long[] entry) -> entry[1]).reversed())
+        .limit(limit)
+        .collect(Collectors.toList());
+
+    List<Long> productIds = new ArrayList<>();
+    for (long[] entry : ranked) {
+      productIds.add(firstId(entry[0]));
+      productIds.add(secondId(entry[0]));
+    }
+    Map<Long, String> names = productIds.isEmpty()
+        ? Map.of()
+        : productCatalogService.resolveNames(productIds);
+
+    List<ProductPairCountDTO> top = new ArrayList<>(ranked.size());
+    for (int rank = 0; rank < ranked.size(); rank++) {
+      long key = ranked.get(rank)[0];
+      long id1 = firstId(key);
+      long id2 = secondId(key);
+      top.add(new ProductPairCountDTO(
+          rank + 1,
+          id1,
+          names.getOrDefault(id1, "Produto Desconhecido"),
+          id2,
+          names.getOrDefault(id2, "Produto Desconhecido"),
+          ranked.get(rank)[1]));
+    }
+    return top;
+  }
+
+  /**
+   * Atualiza os gauges do top-N. Séries que saíram do ranking são removidas, mantendo o
+   * número de séries exportadas limitado a {@code topSize}.
+   */
+  @Scheduled(fixedDelayString = "${orders.analytics.refresh-interval-ms:15000}")
+  public void refreshGauges() {
+    List<MultiGauge.Row<?>> rows = top(topSize).stream()
+        .map(pair -> MultiGauge.Row.of(Tags.of(
+                "pair", pair.getPair(),
+                "product1_id", String.valueOf(pair.getProduct1Id()),
+                "product2_id", String.valueOf(pair.getProduct2Id())),
+            pair.getCount()))
+        .collect(Collectors.toList());
+    topGauges.register(rows, true);
+  }
+
+  private long increment(long key) {
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < DEPTH; row++) {
+      estimate = Math.min(estimate, sketch.incrementAndGet(index(row, key)));
+    }
+    return estimate;
+  }
+
+  private long estimate(long key) {
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < DEPTH; row++) {
+      estimate = Math.min(estimate, sketch.get(index(row, key)));
+    }
+    return estimate;
+  }
+
+  private void offer(long key, long estimate) {
+    if (candidates.containsKey(key) || candidates.size() < candidateCapacity) {
+      candidates.put(key, estimate);
+    } else if (estimate > admissionThreshold) {
+      candidates.put(key, estimate);
+      trim();
+    }
+  }
+
+  private void trim() {
+    // Apenas uma thread poda o conjunto; as demais seguem sem esperar
+    if (!trimming.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      List<Map.Entry<Long, Long>> ordered = new ArrayList<>(candidates.entrySet());
+      ordered.sort(Map.Entry.comparingByValue());
+      int excess = ordered.size() - candidateCapacity;
+      for (int i = 0; i < excess; i++) {
+        candidates.remove(ordered.get(i).getKey());
+      }
+      if (excess >= 0 && excess < ordered.size()) {
+        admissionThreshold = ordered.get(excess).getValue();
+      }
+    } finally {
+      trimming.set(false);
+    }
+  }
+
+  private static int index(int row, long key) {
+    long hash = mix(key ^ SEEDS[row]);
+    return row * WIDTH + (int) ((hash >>> 1) % WIDTH);
+  }
+
+  private static long mix(long value) {
+    value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+    value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+    return value ^ (value >>> 33);
+  }
+
+  /**
+   * Empacota o par (menor id, maior id) em um long; devolve -1 para ids fora do intervalo
+   * representável em 32 bits.
+   */
+  private static long pairKey(Long id1, Long id2) {
+    if (id1 == null || id2 == null || id1.equals(id2)
+        || id1 < 0 || id2 < 0 || id1 > 0xFFFFFFFFL || id2 > 0xFFFFFFFFL) {
+      return -1;
+    }
+    long low = Math.min(id1, id2);
+    long high = Math.max(id1, id2);
+    return (low << 32) | high;
+  }
+
+  private static long firstId(long key) {
+    return key >>> 32;
+  }
+
+  private static long secondId(long key) {
+    return key & 0xFFFFFFFFL;
+  }
+}
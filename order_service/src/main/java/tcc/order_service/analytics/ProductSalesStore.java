@@ -0,0 +1,223 @@
+package tcc.order_service.analytics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tcc.order_service.dto.ProductSalesDTO;
+import tcc.order_service.model.Order;
+import tcc.order_service.service.ProductCatalogService;
+
+/**
+ * Totais de vendas pré-agregados por produto (unidades vendidas e pedidos em que o produto
+ * aparece), indexados pelo id primitivo do produto em uma tabela de endereçamento aberto
+ * sem locks. Cada produto tem seus {@link LongAdder}s, evitando contenção no caminho de
+ * criação do pedido.
+ *
+ * <p>As vendas são exportadas como uma série por produto ({@code order.products.sold}, com a
+ * tag {@code productId}); os nomes ficam em uma métrica informativa à parte
+ * ({@code order.products.info}), resolvida periodicamente, para que renomear um produto não
+ * crie uma nova série de vendas.
+ */
+@Component
+public class ProductSalesStore {
+
+  private static final long EMPTY = 0L;
+
+  private final AtomicLongArray keys;
+  private final AtomicReferenceArray<ProductSales> values;
+  private final int mask;
+  // Usado apenas se a tabela encher ou para o id 0, que marca posição vazia
+  private final Map<Long, ProductSales> overflow = new ConcurrentHashMap<>();
+
+  private final MeterRegistry meterRegistry;
+  private final ProductCatalogService productCatalogService;
+  private final MultiGauge productInfo;
+
+  public ProductSalesStore(
+      MeterRegistry meterRegistry,
+      ProductCatalogService productCatalogService,
+      @Value("${orders.analytics.product-sales.capacity:65536}") int capacity) {
+    int size = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+    this.keys = new AtomicLongArray(size);
+    this.values = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+
+    this.meterRegistry = meterRegistry;
+    this.productCatalogService = productCatalogService;
+    this.productInfo = MultiGauge.builder("order.products.info")
+        .description("Nome atual de cada produto vendido (valor sempre 1)")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Acumula as unidades de cada item do pedido e conta o pedido uma vez por produto distinto.
+   */
+  public void record(Order order) {
+    List<Order.OrderProduct> products = order.getProducts();
+    for (int i = 0; i < products.size(); i++) {
+      Order.OrderProduct product = products.get(i);
+      if (product.getProductCode() == null || product.getQuantity() == null) {
+        continue;
+      }
+      ProductSales sales = salesOf(product.getProductCode());
+      sales.units.add(product.getQuantity());
+      if (isFirstOccurrence(products, i)) {
+        sales.orders.increment();
+      }
+    }
+  }
+
+  public List<ProductSalesDTO> findAll() {
+    List<ProductSales> all = new ArrayList<>();
+    forEach(all::add);
+
+    Map<Long, String> names = all.isEmpty()
+        ? Map.of()
+        : productCatalogService.resolveNames(
+            all.stream().map(sales -> sales.productId).collect(Collectors.toList()));
+
+    return all.stream()
+        .map(sales -> toDto(sales, names))
+        .sorted(Comparator.comparingLong(ProductSalesDTO::getUnitsSold).reversed())
+        .collect(Collectors.toList());
+  }
+
+  public ProductSalesDTO findByProductId(long productId) {
+    ProductSales sales = find(productId);
+    if (sales == null) {
+      return null;
+    }
+    return toDto(sales, productCatalogService.resolveNames(List.of(productId)));
+  }
+
+  /**
+   * Atualiza a métrica informativa com o nome atual de cada produto vendido.
+   */
+  @Scheduled(fixedDelayString = "${orders.analytics.product-names-refresh-interval-ms:60000}")
+  public void refreshProductNames() {
+    List<ProductSalesDTO> products = findAll();
+    productInfo.register(products.stream()
+        .map(product -> MultiGauge.Row.of(Tags.of(
+            "productId", String.valueOf(product.getProductId()),
+            "productName", product.getProductName()), 1))
+        .collect(Collectors.toList()), true);
+  }
+
+  private ProductSales salesOf(long productId) {
+    if (productId == EMPTY) {
+      return overflow.computeIfAbsent(productId, this::register);
+    }
+
+    int index = (int) mix(productId) & mask;
+    for (int probe = 0; probe <= mask; probe++) {
+      long key = keys.get(index);
+      if (key == productId) {
+        return awaitValue(index);
+      }
+      if (key == EMPTY) {
+        if (keys.compareAndSet(index, EMPTY, productId)) {
+          ProductSales sales = register(productId);
+          values.set(index, sales);
+          return sales;
+        }
+        // Outra thread ocupou a posição: reavalia a mesma posição
+        probe--;
+        continue;
+      }
+      index = (index + 1) & mask;
+    }
+    return overflow.computeIfAbsent(productId, this::register);
+  }
+
+  private ProductSales find(long productId) {
+    if (productId != EMPTY) {
+      int index = (int) mix(productId) & mask;
+      for (int probe = 0; probe <= mask; probe++) {
+        long key = keys.get(index);
+        if (key == productId) {
+          return awaitValue(index);
+        }
+        if (key == EMPTY) {
+          break;
+        }
+        index = (index + 1) & mask;
+      }
+    }
+    return overflow.get(productId);
+  }
+
+  private ProductSales awaitValue(int index) {
+    // A chave é publicada antes do valor; a janela entre os dois é de poucas instruções
+    ProductSales sales;
+    while ((sales = values.get(index)) == null) {
+      Thread.onSpinWait();
+    }
+    return sales;
+  }
+
+  private void forEach(Consumer<ProductSales> consumer) {
+    for (int i = 0; i <= mask; i++) {
+      ProductSales sales = values.get(i);
+      if (sales != null) {
+        consumer.accept(sales);
+      }
+    }
+    overflow.values().forEach(consumer);
+  }
+
+  private ProductSales register(long productId) {
+    ProductSales sales = new ProductSales(productId);
+    FunctionCounter.builder("order.products.sold", sales.units, LongAdder::doubleValue)
+        .description("Unidades vendidas por produto")
+        .tag("productId", String.valueOf(productId))
+        .register(meterRegistry);
+    return sales;
+  }
+
+  private static boolean isFirstOccurrence(List<Order.OrderProduct> products, int index) {
+    Long productCode = products.get(index).getProductCode();
+    for (int i = 0; i < index; i++) {
+      if (productCode.equals(products.get(i).getProductCode())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static ProductSalesDTO toDto(ProductSales sales, Map<Long, String> names) {
+    return new ProductSalesDTO(
+        sales.productId,
+        names.getOrDefault(sales.productId, "Desconhecido"),
+        sales.units.sum(),
+        sales.orders.sum());
+  }
+
+  private static long mix(long value) {
+    value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+    return value ^ (value >>> 33);
+  }
+
+  private static final class ProductSales {
+    private final long productId;
+    private final LongAdder units = new LongAdder();
+    private final LongAdder orders = new LongAdder();
+
+    private ProductSales(long productId) {
+      this.productId = productId;
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package tcc.order_service.cache;
+
+/**
+ * A chave de idempotência já foi usada em uma criação com outro conteúdo; o pedido original
+ * não é devolvido para uma requisição diferente.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public IdempotencyKeyReusedException(String idempotencyKey) {
+    super("Idempotency-Key " + idempotencyKey + " já foi usada com outro conteúdo de pedido");
+  }
+}
@@ -0,0 +1,134 @@
+package tcc.order_service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import tcc.order_service.model.Order;
+
+/**
+ * Resultados recentes de {@code POST /orders} por chave de idempotência. A primeira requisição
+ * com a chave executa a criação; as repetições (inclusive as que chegam enquanto a primeira
+ * ainda está em andamento) recebem o mesmo pedido, sem nova validação nem gravação.
+ *
+ * <p>Cada chave fica associada à impressão digital do corpo que a criou ({@link #fingerprint}):
+ * uma requisição com a mesma chave e outro conteúdo (mesa, itens ou status) é rejeitada com
+ * {@link IdempotencyKeyReusedException} em vez de receber o pedido de outra requisição.
+ *
+ * <p>As entradas expiram por TTL e o tamanho é limitado; falhas não são guardadas, para que o
+ * cliente possa tentar de novo. Entradas perdidas (expiração, reinício) são cobertas pela
+ * unicidade da chave no banco.
+ */
+@Component
+public class OrderIdempotencyStore {
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  private final int maxSize;
+  private final long ttlNanos;
+
+  private final Counter hitCounter;
+  private final Counter missCounter;
+
+  public OrderIdempotencyStore(
+      MeterRegistry meterRegistry,
+      @Value("${orders.idempotency.max-size:10000}") int maxSize,
+      @Value("${orders.idempotency.ttl:1h}") Duration ttl) {
+    this.maxSize = maxSize;
+    this.ttlNanos = ttl.toNanos();
+
+    this.hitCounter = meterRegistry.counter("order.idempotency.hits");
+    this.missCounter = meterRegistry.counter("order.idempotency.misses");
+    meterRegistry.gaugeMapSize("order.idempotency.store.size", List.of(), entries);
+  }
+
+  /**
+   * Devolve o resultado já associado à chave ou, na primeira vez, executa {@code operation}
+   * e associa o resultado a ela. Falha se a chave foi usada com outra impressão digital.
+   */
+  public Mono<Order> execute(String key, String fingerprint, Supplier<Mono<Order>> operation) {
+    long now = System.nanoTime();
+    // O resultado é preguiçoso: só é executado se esta entrada for a que ficar no mapa
+    Entry created = new Entry(fingerprint, now + ttlNanos);
+    created.result = Mono.defer(operation)
+        .map(Order::snapshot)
+        .doOnError(e -> entries.remove(key, created))
+        .cache();
+
+    Entry entry = entries.compute(key, (k, current) ->
+        current != null && !current.isExpired(now) ? current : created);
+    if (entry != created) {
+      if (!entry.fingerprint.equals(fingerprint)) {
+        return Mono.error(new IdempotencyKeyReusedException(key));
+      }
+      hitCounter.increment();
+      return entry.result;
+    }
+
+    missCounter.increment();
+    if (entries.size() > maxSize) {
+      evict();
+    }
+    return created.result;
+  }
+
+  /**
+   * SHA-256 (hexadecimal) do conteúdo da criação: mesa, status e itens na ordem recebida.
+   */
+  public static String fingerprint(Order order) {
+    StringBuilder content = new StringBuilder()
+        .append(order.getTableNumber()).append('|')
+        .append(order.getStatus()).append('|');
+    for (Order.OrderProduct product : order.getProducts()) {
+      content.append(product.getProductCode()).append(':')
+          .append(product.getQuantity()).append(',');
+    }
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(
+          digest.digest(content.toString().getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 indisponível", e);
+    }
+  }
+
+  private void evict() {
+    long now = System.nanoTime();
+    entries.values().removeIf(entry -> entry.isExpired(now));
+
+    // Sem entradas expiradas suficientes, libera espaço de forma aproximada
+    Iterator<String> iterator = entries.keySet().iterator();
+    while (entries.size() > maxSize && iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+    }
+  }
+
+  private static final class Entry {
+    private final String fingerprint;
+    private final long expiresAt;
+    // Resultado compartilhado entre a requisição original e as repetições; atribuído antes
+    // de a entrada ser publicada no mapa
+    private Mono<Order> result;
+
+    private Entry(String fingerprint, long expiresAt) {
+      this.fingerprint = fingerprint;
+      this.expiresAt = expiresAt;
+    }
+
+    private boolean isExpired(long now) {
+      return now - expiresAt >= 0;
+    }
+  }
+}
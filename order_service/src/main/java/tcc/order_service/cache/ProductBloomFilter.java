@@ -0,0 +1,74 @@
+package tcc.order_service.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Filtro de Bloom dos ids do catálogo, baixado do product_service
+ * ({@code GET /products/bloom-filter}). Sem falsos negativos: se {@link #mightContain}
+ * devolve false, o código não existia na versão do catálogo em que o filtro foi gerado.
+ *
+ * <p>Formato (big-endian): versão do catálogo ({@code long}), número de funções de hash
+ * ({@code int}), número de palavras de 64 bits ({@code int}) e as palavras. O bit {@code i} de
+ * um id é {@code (h1 + i * h2) mod m}, sem sinal, com {@code h1 = mix(id)} e
+ * {@code h2 = mix(h1)} (finalizador de 64 bits do MurmurHash3), o mesmo cálculo do
+ * product_service.
+ */
+public final class ProductBloomFilter {
+
+  private static final int HEADER_BYTES = Long.BYTES + 2 * Integer.BYTES;
+
+  private final long version;
+  private final int hashFunctions;
+  private final long[] words;
+  private final long bitCount;
+
+  private ProductBloomFilter(long version, int hashFunctions, long[] words) {
+    this.version = version;
+    this.hashFunctions = hashFunctions;
+    this.words = words;
+    this.bitCount = (long) words.length * Long.SIZE;
+  }
+
+  public static ProductBloomFilter fromBytes(byte[] bytes) {
+    if (bytes.length < HEADER_BYTES) {
+      throw new IllegalArgumentException("Filtro de Bloom truncado: " + bytes.length + " bytes");
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    long version = buffer.getLong();
+    int hashFunctions = buffer.getInt();
+    int wordCount = buffer.getInt();
+    if (hashFunctions < 1 || wordCount < 1 || buffer.remaining() != wordCount * Long.BYTES) {
+      throw new IllegalArgumentException("Filtro de Bloom inválido: " + hashFunctions
+          + " funções de hash, " + wordCount + " palavras, " + bytes.length + " bytes");
+    }
+    long[] words = new long[wordCount];
+    buffer.asLongBuffer().get(words);
+    return new ProductBloomFilter(version, hashFunctions, words);
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public long getBitCount() {
+    return bitCount;
+  }
+
+  public boolean mightContain(long productId) {
+    long h1 = mix(productId);
+    long h2 = mix(h1);
+    for (int i = 0; i < hashFunctions; i++) {
+      long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+      if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long mix(long value) {
+    value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+    value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+    return value ^ (value >>> 33);
+  }
+}
@@ -0,0 +1,221 @@
+package tcc.order_service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import tcc.order_service.dto.ProductValidationDTO;
+
+/**
+ * Cache local (near cache) do catálogo do product_service: guarda, por código, se o produto
+ * existe e qual o seu nome. As entradas expiram por TTL, o tamanho é limitado e todo o cache
+ * é invalidado quando a versão do catálogo informada pelo product_service muda.
+ *
+ * <p>Entradas expiradas ou invalidadas deixam de ser servidas em {@link #lookup}, mas ficam
+ * guardadas (até o limite de tamanho) como último estado conhecido do catálogo, usado pelo
+ * modo degradado quando o product_service está indisponível ({@link #lastKnown}).
+ *
+ * <p>Guarda também o filtro de Bloom dos ids do catálogo ({@link #isKnownAbsent}), consultado
+ * apenas enquanto a versão dele for a versão atual do catálogo: um produto criado depois do
+ * filtro nunca é rejeitado por ele após a mudança de versão ser detectada.
+ */
+@Component
+public class ProductCatalogCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(ProductCatalogCache.class);
+
+  private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicLong catalogVersion = new AtomicLong(-1);
+  // Incrementada a cada invalidação: entradas de cargas iniciadas antes dela valem apenas
+  // como último estado conhecido e não são servidas em lookup
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicReference<ProductBloomFilter> bloomFilter = new AtomicReference<>();
+
+  private final int maxSize;
+  private final long ttlNanos;
+
+  private final Counter hitCounter;
+  private final Counter missCounter;
+  private final Counter invalidationCounter;
+
+  public ProductCatalogCache(
+      MeterRegistry meterRegistry,
+      @Value("${product-catalog.cache.max-size:10000}") int maxSize,
+      @Value("${product-catalog.cache.ttl:10m}") Duration ttl) {
+    this.maxSize = maxSize;
+    this.ttlNanos = ttl.toNanos();
+
+    this.hitCounter = meterRegistry.counter("product.catalog.cache.hits");
+    this.missCounter = meterRegistry.counter("product.catalog.cache.misses");
+    this.invalidationCounter = meterRegistry.counter("product.catalog.cache.invalidations");
+    meterRegistry.gaugeMapSize("product.catalog.cache.size", List.of(), entries);
+    meterRegistry.gauge("product.catalog.bloom-filter.bits", bloomFilter,
+        filter -> filter.get() != null ? filter.get().getBitCount() : 0);
+  }
+
+  /**
+   * Resolve os códigos pelo cache e delega ao {@code loader} apenas os que não estão
+   * presentes (ou expiraram), gravando a resposta para as próximas consultas.
+   */
+  public Mono<ProductValidationDTO> lookup(List<Long> productIds,
+      Function<List<Long>, Mono<ProductValidationDTO>> loader) {
+    Map<Long, String> products = new HashMap<>();
+    List<Long> missing = new ArrayList<>();
+    List<Long> toLoad = new ArrayList<>();
+
+    long now = System.nanoTime();
+    long currentGeneration = generation.get();
+    for (Long productId : productIds) {
+      Entry entry = entries.get(productId);
+      if (entry == null || entry.isStale(now, currentGeneration)) {
+        toLoad.add(productId);
+      } else if (entry.name != null) {
+        products.put(productId, entry.name);
+      } else {
+        missing.add(productId);
+      }
+    }
+
+    hitCounter.increment(productIds.size() - toLoad.size());
+    if (toLoad.isEmpty()) {
+      return Mono.just(new ProductValidationDTO(products, missing));
+    }
+    missCounter.increment(toLoad.size());
+
+    return loader.apply(toLoad).map(loaded -> {
+      if (loaded.getCatalogVersion() != null) {
+        onCatalogVersion(loaded.getCatalogVersion());
+      }
+
+      store(loaded, currentGeneration);
+
+      products.putAll(loaded.getProducts());
+      missing.addAll(loaded.getMissing());
+      return new ProductValidationDTO(products, missing);
+    });
+  }
+
+  /**
+   * Último estado conhecido de cada código, incluindo entradas expiradas ou invalidadas, para
+   * validar pedidos enquanto o product_service não responde. Vazio se algum dos códigos nunca
+   * foi visto (ou já foi removido do cache).
+   */
+  public Optional<ProductValidationDTO> lastKnown(List<Long> productIds) {
+    Map<Long, String> products = new HashMap<>();
+    List<Long> missing = new ArrayList<>();
+    for (Long productId : productIds) {
+      Entry entry = entries.get(productId);
+      if (entry == null) {
+        return Optional.empty();
+      }
+      if (entry.name != null) {
+        products.put(productId, entry.name);
+      } else {
+        missing.add(productId);
+      }
+    }
+    return Optional.of(new ProductValidationDTO(products, missing));
+  }
+
+  /**
+   * Compara a versão do catálogo informada pelo product_service com a última conhecida e
+   * descarta todas as entradas se ela mudou (produto criado, alterado ou removido).
+   */
+  public void onCatalogVersion(long remoteVersion) {
+    long knownVersion = catalogVersion.getAndSet(remoteVersion);
+    if (knownVersion != -1 && knownVersion != remoteVersion) {
+      logger.info("Product catalog changed (version {} -> {}), invalidating cache.",
+          knownVersion, remoteVersion);
+      invalidateAll();
+    }
+  }
+
+  public void onBloomFilter(ProductBloomFilter filter) {
+    bloomFilter.set(filter);
+  }
+
+  /**
+   * Versão do catálogo do filtro de Bloom guardado, ou null se nenhum foi recebido.
+   */
+  public Long getBloomFilterVersion() {
+    ProductBloomFilter filter = bloomFilter.get();
+    return filter != null ? filter.getVersion() : null;
+  }
+
+  /**
+   * Indica se o código certamente não existe no catálogo, segundo o filtro de Bloom da versão
+   * atual. Sem filtro, ou com filtro de outra versão, nada é considerado ausente.
+   */
+  public boolean isKnownAbsent(long productId) {
+    ProductBloomFilter filter = bloomFilter.get();
+    return filter != null
+        && filter.getVersion() == catalogVersion.get()
+        && !filter.mightContain(productId);
+  }
+
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    invalidationCounter.increment();
+  }
+
+  private void store(ProductValidationDTO loaded, long loadGeneration) {
+    long expiresAt = System.nanoTime() + ttlNanos;
+    loaded.getProducts().forEach((id, name) ->
+        entries.merge(id, new Entry(name, expiresAt, loadGeneration), Entry::newest));
+    loaded.getMissing().forEach(id ->
+        entries.merge(id, new Entry(null, expiresAt, loadGeneration), Entry::newest));
+
+    if (entries.size() > maxSize) {
+      evict();
+    }
+  }
+
+  private void evict() {
+    long now = System.nanoTime();
+    long currentGeneration = generation.get();
+    entries.values().removeIf(entry -> entry.isStale(now, currentGeneration));
+
+    // Sem entradas expiradas suficientes, libera espaço de forma aproximada
+    Iterator<Long> iterator = entries.keySet().iterator();
+    while (entries.size() > maxSize && iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+    }
+  }
+
+  private static final class Entry {
+    // Nome de exibição do produto; null indica que o código não existe no catálogo
+    private final String name;
+    private final long expiresAt;
+    private final long generation;
+
+    private Entry(String name, long expiresAt, long generation) {
+      this.name = name;
+      this.expiresAt = expiresAt;
+      this.generation = generation;
+    }
+
+    // Uma carga concluída depois de outra mais recente não sobrescreve o resultado dela
+    private static Entry newest(Entry current, Entry loaded) {
+      return current.generation > loaded.generation ? current : loaded;
+    }
+
+    private boolean isStale(long now, long currentGeneration) {
+      return generation != currentGeneration || now - expiresAt >= 0;
+    }
+  }
+}
@@ -0,0 +1,267 @@
+package tcc.order_service.configuration;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import tcc.order_service.dto.ProductValidationDTO;
+
+/**
+ * Cliente HTTP do product_service, criado uma única vez e compartilhado por todas as
+ * chamadas. Usa um pool de conexões Reactor Netty dimensionado por configuração, com
+ * timeouts de conexão e de resposta, compressão e métricas do pool publicadas no Micrometer
+ * ({@code reactor.netty.connection.provider.*}).
+ *
+ * <p>Toda chamada passa pela instância {@code product-service} do Resilience4j: timeout total,
+ * bulkhead de concorrência (falha imediata quando cheio), circuit breaker e retry com espera
+ * aleatória. O retry só é aplicado às chamadas sem efeito colateral, que são todas as deste
+ * cliente. Estados e contadores são exportados no Micrometer ({@code resilience4j.*}) e no
+ * health ({@code circuitBreakers}).
+ *
+ * <p>Validações concorrentes do mesmo código compartilham a chamada em andamento (single
+ * flight): cada código pendente aponta para a chamada que o está buscando e novos pedidos
+ * que o incluem aguardam essa resposta em vez de repetir a consulta. Nada fica guardado
+ * depois que a chamada termina. Os códigos buscados e os aproveitados são contados em
+ * {@code product.catalog.lookups} (tag {@code result}: {@code issued} ou {@code coalesced}).
+ */
+@Component
+public class ProductServiceClient {
+
+  private static final Logger logger = LoggerFactory.getLogger(ProductServiceClient.class);
+  private static final String INSTANCE = "product-service";
+
+  private final WebClient webClient;
+  private final CircuitBreaker circuitBreaker;
+  private final Bulkhead bulkhead;
+  private final TimeLimiter timeLimiter;
+  private final Retry retry;
+
+  // Código do produto -> chamada em andamento que o está validando
+  private final Map<Long, InFlight> inFlight = new ConcurrentHashMap<>();
+  private final Counter issuedCounter;
+  private final Counter coalescedCounter;
+
+  public ProductServiceClient(
+      WebClient.Builder webClientBuilder,
+      CircuitBreakerRegistry circuitBreakerRegistry,
+      BulkheadRegistry bulkheadRegistry,
+      TimeLimiterRegistry timeLimiterRegistry,
+      RetryRegistry retryRegistry,
+      MeterRegistry meterRegistry,
+      @Value("${product-service.base-url}") String baseUrl,
+      @Value("${product-service.client.max-connections:50}") int maxConnections,
+      @Value("${product-service.client.pending-acquire-max-count:500}") int pendingAcquireMaxCount,
+      @Value("${product-service.client.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+      @Value("${product-service.client.max-idle-time:30s}") Duration maxIdleTime,
+      @Value("${product-service.client.max-life-time:5m}") Duration maxLifeTime,
+      @Value("${product-service.client.connect-timeout:1s}") Duration connectTimeout,
+      @Value("${product-service.client.response-timeout:2s}") Duration responseTimeout,
+      @Value("${product-service.client.max-in-memory-size:4MB}") DataSize maxInMemorySize) {
+
+    ConnectionProvider connectionProvider = ConnectionProvider.builder("product-service")
+        .maxConnections(maxConnections)
+        .pendingAcquireMaxCount(pendingAcquireMaxCount)
+        .pendingAcquireTimeout(pendingAcquireTimeout)
+        .maxIdleTime(maxIdleTime)
+        .maxLifeTime(maxLifeTime)
+        .evictInBackground(maxIdleTime)
+        .metrics(true)
+        .build();
+
+    HttpClient httpClient = HttpClient.create(connectionProvider)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+        .option(ChannelOption.SO_KEEPALIVE, true)
+        .responseTimeout(responseTimeout)
+        .keepAlive(true)
+        .compress(true);
+
+    this.webClient = webClientBuilder.clone()
+        .baseUrl(baseUrl)
+        .clientConnector(new ReactorClientHttpConnector(httpClient))
+        // O filtro de Bloom de um catálogo grande passa do limite padrão de 256 KB
+        .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxInMemorySize.toBytes()))
+        .build();
+
+    this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE);
+    this.bulkhead = bulkheadRegistry.bulkhead(INSTANCE);
+    this.timeLimiter = timeLimiterRegistry.timeLimiter(INSTANCE);
+    this.retry = retryRegistry.retry(INSTANCE);
+    circuitBreaker.getEventPublisher().onStateTransition(event ->
+        logger.warn("Product service circuit breaker: {}", event.getStateTransition()));
+
+    this.issuedCounter = meterRegistry.counter("product.catalog.lookups", "result", "issued");
+    this.coalescedCounter = meterRegistry.counter("product.catalog.lookups", "result", "coalesced");
+  }
+
+  /**
+   * Valida os códigos no product_service, aproveitando as chamadas em andamento que já
+   * incluem algum deles e buscando apenas o restante em uma única chamada nova.
+   */
+  public Mono<ProductValidationDTO> validateProducts(List<Long> productIds) {
+    return Mono.defer(() -> coalesce(productIds));
+  }
+
+  private Mono<ProductValidationDTO> coalesce(List<Long> productIds) {
+    Set<Long> requested = new LinkedHashSet<>(productIds);
+    InFlight call = new InFlight();
+    Set<InFlight> calls = new LinkedHashSet<>();
+    for (Long productId : requested) {
+      InFlight existing = inFlight.putIfAbsent(productId, call);
+      if (existing == null) {
+        call.productIds.add(productId);
+      } else if (existing != call) {
+        calls.add(existing);
+      }
+    }
+
+    coalescedCounter.increment(requested.size() - call.productIds.size());
+    if (!call.productIds.isEmpty()) {
+      issuedCounter.increment(call.productIds.size());
+      call.start();
+      calls.add(call);
+    }
+
+    return Flux.fromIterable(calls)
+        .flatMap(shared -> shared.result)
+        .collectList()
+        .map(results -> merge(requested, results));
+  }
+
+  /**
+   * Monta a resposta dos códigos pedidos a partir das respostas das chamadas compartilhadas,
+   * que podem incluir outros códigos.
+   */
+  private static ProductValidationDTO merge(Set<Long> requested,
+      List<ProductValidationDTO> results) {
+    Map<Long, String> products = new HashMap<>();
+    List<Long> missing = new ArrayList<>();
+    Long catalogVersion = null;
+    for (Long productId : requested) {
+      String name = null;
+      for (ProductValidationDTO result : results) {
+        name = result.getProducts().get(productId);
+        if (name != null) {
+          break;
+        }
+      }
+      if (name != null) {
+        products.put(productId, name);
+      } else {
+        missing.add(productId);
+      }
+    }
+    for (ProductValidationDTO result : results) {
+      if (result.getCatalogVersion() != null
+          && (catalogVersion == null || result.getCatalogVersion() > catalogVersion)) {
+        catalogVersion = result.getCatalogVersion();
+      }
+    }
+
+    ProductValidationDTO merged = new ProductValidationDTO(products, missing);
+    merged.setCatalogVersion(catalogVersion);
+    return merged;
+  }
+
+  /**
+   * Apesar do POST, a validação é apenas uma consulta e pode ser repetida com segurança.
+   */
+  private Mono<ProductValidationDTO> fetchValidation(List<Long> productIds) {
+    return resilient(webClient.post()
+        .uri("/batch-validate")
+        .bodyValue(productIds)
+        .retrieve()
+        .bodyToMono(ProductValidationDTO.class)
+        .defaultIfEmpty(new ProductValidationDTO(Collections.emptyMap(), productIds)),
+        "Falha ao validar produtos no product_service");
+  }
+
+  public Mono<Long> getCatalogVersion() {
+    return resilient(webClient.get()
+        .uri("/catalog-version")
+        .retrieve()
+        .bodyToMono(Long.class),
+        "Falha ao consultar a versão do catálogo no product_service");
+  }
+
+  /**
+   * Chamada de validação compartilhada pelos pedidos concorrentes. O resultado é mantido
+   * apenas enquanto a chamada está em andamento: ao terminar, com sucesso ou erro, os códigos
+   * saem de {@code inFlight} e a próxima validação faz uma chamada nova. Cancelar um dos
+   * assinantes não cancela a chamada dos demais.
+   */
+  private final class InFlight {
+    private final List<Long> productIds = new ArrayList<>();
+    private final Sinks.One<ProductValidationDTO> sink = Sinks.one();
+    // Disponível desde a criação: quem encontra a chamada em inFlight pode assinar antes de
+    // ela começar
+    private final Mono<ProductValidationDTO> result = sink.asMono();
+
+    private void start() {
+      fetchValidation(productIds)
+          .doFinally(signal -> productIds.forEach(id -> inFlight.remove(id, this)))
+          .subscribe(sink::tryEmitValue, sink::tryEmitError, sink::tryEmitEmpty);
+    }
+  }
+
+  /**
+   * Filtro de Bloom dos ids do catálogo, serializado. Vazio quando {@code knownVersion} ainda
+   * é a versão atual (304).
+   */
+  public Mono<byte[]> getBloomFilter(Long knownVersion) {
+    return resilient(webClient.get()
+        .uri("/bloom-filter")
+        .headers(headers -> {
+          if (knownVersion != null) {
+            headers.setIfNoneMatch("\"" + knownVersion + "\"");
+          }
+        })
+        .retrieve()
+        .bodyToMono(byte[].class),
+        "Falha ao baixar o filtro de Bloom do catálogo no product_service");
+  }
+
+  /**
+   * Cada tentativa tem seu próprio timeout e passa pelo bulkhead e pelo circuit breaker; o
+   * retry fica por fora e não repete rejeições do bulkhead nem do circuito aberto.
+   */
+  private <T> Mono<T> resilient(Mono<T> call, String failureMessage) {
+    return call
+        .transformDeferred(TimeLimiterOperator.of(timeLimiter))
+        .transformDeferred(BulkheadOperator.of(bulkhead))
+        .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+        .transformDeferred(RetryOperator.of(retry))
+        .onErrorMap(e -> new RuntimeException(failureMessage + ": " + e.getMessage(), e));
+  }
+}
@@ -0,0 +1,22 @@
+package tcc.order_service.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class ReactorConfig {
+
+  /**
+   * Scheduler limitado onde as escritas JPA (bloqueantes) do fluxo reativo são executadas,
+   * dimensionado de acordo com o pool de conexões do banco.
+   */
+  @Bean(destroyMethod = "dispose")
+  public Scheduler jpaScheduler(
+      @Value("${orders.jpa-scheduler.threads:10}") int threads,
+      @Value("${orders.jpa-scheduler.queue-size:1000}") int queueSize) {
+    return Schedulers.newBoundedElastic(threads, queueSize, "order-jpa");
+  }
+}
@@ -0,0 +1,58 @@
+package tcc.order_service.controller;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import tcc.order_service.analytics.ProductPairTopK;
+import tcc.order_service.analytics.ProductSalesStore;
+import tcc.order_service.dto.ProductPairCountDTO;
+import tcc.order_service.dto.ProductSalesDTO;
+
+@RestController
+@RequestMapping("/orders/analytics")
+public class OrderAnalyticsController {
+
+  private static final Logger logger = LoggerFactory.getLogger(OrderAnalyticsController.class);
+
+  private final ProductPairTopK productPairTopK;
+  private final ProductSalesStore productSalesStore;
+
+  @Value("${orders.analytics.max-limit:100}")
+  private int maxLimit;
+
+  public OrderAnalyticsController(ProductPairTopK productPairTopK,
+      ProductSalesStore productSalesStore) {
+    this.productPairTopK = productPairTopK;
+    this.productSalesStore = productSalesStore;
+  }
+
+  @GetMapping("/top-combinations")
+  public List<ProductPairCountDTO> getTopCombinations(
+      @RequestParam(defaultValue = "10") int limit) {
+    logger.info("Received request for top {} product combinations.", limit);
+
+    return productPairTopK.top(Math.max(1, Math.min(limit, maxLimit)));
+  }
+
+  @GetMapping("/products")
+  public List<ProductSalesDTO> getProductSales() {
+    logger.info("Received request for per-product sales totals.");
+
+    return productSalesStore.findAll();
+  }
+
+  @GetMapping("/products/{productId}")
+  public ResponseEntity<ProductSalesDTO> getProductSales(@PathVariable long productId) {
+    logger.info("Received request for sales totals of product ID: {}", productId);
+
+    ProductSalesDTO sales = productSalesStore.findByProductId(productId);
+    return sales != null ? ResponseEntity.ok(sales) : ResponseEntity.notFound().build();
+  }
+}
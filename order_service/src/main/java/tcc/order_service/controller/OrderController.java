@@ -1,20 +1,46 @@
 package tcc.order_service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
-import java.time.LocalDateTime;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tcc.order_service.cache.IdempotencyKeyReusedException;
+import tcc.order_service.dto.BulkStatusUpdateDTO;
+import tcc.order_service.dto.BulkStatusUpdateResultDTO;
+import tcc.order_service.dto.CursorPageDTO;
+import tcc.order_service.dto.OrderImportResultDTO;
 import tcc.order_service.model.Order;
+import tcc.order_service.model.OrderStatus;
+import tcc.order_service.readmodel.OpenOrderReadModel;
+import tcc.order_service.service.OrderImportService;
 import tcc.order_service.service.OrderService;
+import tcc.order_service.service.ProductCatalogUnavailableException;
+import tcc.order_service.scheduler.DelayedOrderDetector;
 import tcc.order_service.scheduler.OrderProcessingTask;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -26,10 +52,28 @@ public class OrderController {
   @Autowired
   private OrderService orderService;
 
+  @Autowired
+  private OrderImportService orderImportService;
+
+  @Autowired
+  private OpenOrderReadModel openOrderReadModel;
+
   private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
+  // Mesmo tamanho da coluna orders.idempotency_key
+  private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+  // Evento SSE que pede ao cliente para reconectar e receber o snapshot dos atrasados de novo
+  private static final String RESYNC_EVENT = "resync";
 
   private final MeterRegistry meterRegistry;
   private final OrderProcessingTask orderProcessingTask;
+  private final DelayedOrderDetector delayedOrderDetector;
+  private final ObjectMapper objectMapper;
+
+  @Value("${orders.page.max-size:500}")
+  private int maxPageSize;
+
+  @Value("${orders.status.bulk-max-size:500}")
+  private int maxBulkStatusSize;
 
   private final Counter getAllOrdersCounter;
   private final Timer getAllOrdersTimer;
@@ -43,9 +87,12 @@ public class OrderController {
   private final Timer deleteOrderTimer;
 
   @Autowired
-  public OrderController(MeterRegistry meterRegistry, OrderProcessingTask orderProcessingTask) {
+  public OrderController(MeterRegistry meterRegistry, OrderProcessingTask orderProcessingTask,
+      DelayedOrderDetector delayedOrderDetector, ObjectMapper objectMapper) {
     this.meterRegistry = meterRegistry;
     this.orderProcessingTask = orderProcessingTask;
+    this.delayedOrderDetector = delayedOrderDetector;
+    this.objectMapper = objectMapper;
 
     this.getAllOrdersCounter = meterRegistry.counter("endpoint.getAllOrders.count");
     this.getAllOrdersTimer = meterRegistry.timer("endpoint.getAllOrders.time");
@@ -77,6 +124,29 @@ public class OrderController {
     return orders;
   }
 
+  @GetMapping("/page")
+  public CursorPageDTO<Order> getOrdersPage(
+      @RequestParam(defaultValue = "0") long after,
+      @RequestParam(defaultValue = "50") int size) {
+    int pageSize = Math.max(1, Math.min(size, maxPageSize));
+    logger.info("Received request for orders page after id {} (size {}).", after, pageSize);
+
+    return orderService.findPage(after, pageSize);
+  }
+
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamOrders() {
+    logger.info("Received request to stream all orders as NDJSON.");
+
+    // Cada pedido é escrito na resposta assim que é lido do banco
+    StreamingResponseBody body = outputStream ->
+        orderService.forEachOrder(order -> writeNdjsonLine(outputStream, order));
+
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(body);
+  }
+
   @GetMapping("/{id}")
   public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
     getOrderByIdCounter.increment();
@@ -97,23 +167,75 @@ public class OrderController {
     return response;
   }
 
+  /**
+   * Cria um pedido. Com o cabeçalho {@code Idempotency-Key}, repetições da mesma requisição
+   * (tablets reenviando em Wi-Fi instável) devolvem o pedido criado na primeira tentativa; a
+   * mesma chave com outro conteúdo é rejeitada com 422.
+   */
   @PostMapping
-  public ResponseEntity<?> createOrder(@RequestBody Order order) {
+  public Mono<ResponseEntity<?>> createOrder(
+      @RequestBody Order order,
+      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
     createOrderCounter.increment();
     long start = System.currentTimeMillis();
 
-    logger.info("Received request to create order: {}", order);
+    logger.info("Received request to create order: {} (idempotency key: {})", order, idempotencyKey);
 
-    try {
-      Order savedOrder = orderService.save(order);
-      logger.info("Order created successfully with id: {}", savedOrder.getId());
-      createOrderTimer.record(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
-      return ResponseEntity.ok(savedOrder);
-    } catch (RuntimeException e) {
-      logger.error("Failed to create order: {}", e.getMessage());
-      createOrderTimer.record(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
-      return ResponseEntity.badRequest().body(e.getMessage());
+    if (idempotencyKey != null
+        && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+      logger.warn("Invalid idempotency key received: {}", idempotencyKey);
+      return Mono.just(ResponseEntity.badRequest()
+          .body("Idempotency-Key deve ter entre 1 e " + MAX_IDEMPOTENCY_KEY_LENGTH + " caracteres"));
     }
+
+    // O thread do Tomcat é liberado enquanto os produtos são validados no product_service
+    Mono<Order> creation = idempotencyKey != null
+        ? orderService.saveReactive(order, idempotencyKey)
+        : orderService.saveReactive(order);
+    return creation
+        .<ResponseEntity<?>>map(savedOrder -> {
+          logger.info("Order created successfully with id: {}", savedOrder.getId());
+          return ResponseEntity.ok(savedOrder);
+        })
+        .onErrorResume(IdempotencyKeyReusedException.class, e -> {
+          logger.warn("Idempotency key reused with a different order: {}", idempotencyKey);
+          return Mono.just(
+              ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage()));
+        })
+        .onErrorResume(ProductCatalogUnavailableException.class, e -> {
+          logger.error("Failed to create order, product catalog unavailable: {}", e.getMessage());
+          return Mono.just(
+              ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage()));
+        })
+        .onErrorResume(RuntimeException.class, e -> {
+          logger.error("Failed to create order: {}", e.getMessage());
+          return Mono.just(ResponseEntity.badRequest().body(e.getMessage()));
+        })
+        .doFinally(signal ->
+            createOrderTimer.record(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS));
+  }
+
+  @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+  public ResponseEntity<OrderImportResultDTO> importOrders(
+      @RequestHeader("Content-Type") String contentType,
+      HttpServletRequest request) throws IOException {
+    OrderImportService.Format format = contentType.startsWith("text/csv")
+        ? OrderImportService.Format.CSV
+        : OrderImportService.Format.NDJSON;
+    logger.info("Received request to import orders ({}).", format);
+
+    Charset charset = request.getCharacterEncoding() != null
+        ? Charset.forName(request.getCharacterEncoding())
+        : StandardCharsets.UTF_8;
+
+    // O corpo é lido em fluxo, sem carregar o arquivo inteiro em memória
+    OrderImportResultDTO result = orderImportService.importOrders(
+        new InputStreamReader(request.getInputStream(), charset), format);
+
+    logger.info("Imported {} of {} orders ({} failed) in {} ms ({} rows/s).",
+        result.getImported(), result.getRowsRead(), result.getFailed(),
+        result.getElapsedMillis(), String.format("%.1f", result.getRowsPerSecond()));
+    return ResponseEntity.ok(result);
   }
 
   @PatchMapping("/{id}/status")
@@ -131,38 +253,87 @@ public class OrderController {
       return ResponseEntity.badRequest().body("Campo 'status' obrigatório");
     }
 
-    String newStatus = statusUpdate.get("status").toUpperCase();
-    if (!isValidStatusTransition(newStatus)) {
-      logger.warn("Invalid status transition attempted: {}", newStatus);
-      return ResponseEntity.badRequest().body("Status inválido ou transição não permitida");
+    OrderStatus newStatus;
+    try {
+      newStatus = OrderStatus.from(statusUpdate.get("status"));
+    } catch (IllegalArgumentException e) {
+      logger.warn("Invalid status attempted: {}", statusUpdate.get("status"));
+      return ResponseEntity.badRequest().body(e.getMessage());
     }
 
-    ResponseEntity<?> response = orderService.findById(id)
-        .map(existingOrder -> {
-          String previousStatus = existingOrder.getStatus();
-          existingOrder.setStatus(newStatus);
-
-          try {
-            Order updatedOrder = orderService.save(existingOrder);
-            logger.info("Order {} status updated from {} to {}",
-                id, previousStatus, newStatus);
-
-            updateOrderTimer.record(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
-            return ResponseEntity.ok(updatedOrder);
-          } catch (RuntimeException e) {
-            logger.error("Failed to update status: {}", e.getMessage());
-            return ResponseEntity.internalServerError().body(e.getMessage());
-          }
-        })
-        .orElseGet(() -> {
-          logger.warn("Order ID {} not found for status update", id);
-          return ResponseEntity.notFound().build();
-        });
+    // Uma única instrução UPDATE condicional, sem carregar o pedido nem consultar o product_service
+    ResponseEntity<?> response;
+    if (orderService.updateStatus(id, newStatus)) {
+      logger.info("Order {} status updated to {}", id, newStatus);
+      response = ResponseEntity.ok(Map.of("id", id, "status", newStatus.name()));
+    } else {
+      response = orderService.findStatus(id)
+          .<ResponseEntity<?>>map(currentStatus -> {
+            logger.warn("Status transition not allowed for order ID {}: {} -> {}",
+                id, currentStatus, newStatus);
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Transição de status não permitida: " + currentStatus + " -> " + newStatus);
+          })
+          .orElseGet(() -> {
+            logger.warn("Order ID {} not found for status update", id);
+            return ResponseEntity.notFound().build();
+          });
+    }
 
     updateOrderTimer.record(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
     return response;
   }
 
+  /**
+   * Alteração de status em lote (cozinha/expedição): por lista de ids ou por mesa, com o
+   * status atual opcional. Devolve o resultado de cada pedido.
+   */
+  @PatchMapping("/status")
+  public ResponseEntity<?> updateOrdersStatus(@RequestBody BulkStatusUpdateDTO request) {
+    updateOrderCounter.increment();
+    long start = System.currentTimeMillis();
+
+    List<Long> ids = request.getIds() != null ? request.getIds() : List.of();
+    boolean byIds = !ids.isEmpty();
+    boolean byTable = request.getTableNumber() != null;
+    logger.info("Received bulk status update request: {} ids, table {}, from {} to {}",
+        ids.size(), request.getTableNumber(), request.getFromStatus(), request.getStatus());
+
+    if (request.getStatus() == null) {
+      logger.warn("Invalid bulk status update request - missing 'status' field");
+      return ResponseEntity.badRequest().body("Campo 'status' obrigatório");
+    }
+    if (byIds == byTable) {
+      logger.warn("Invalid bulk status update request - expected either ids or tableNumber");
+      return ResponseEntity.badRequest().body("Informe 'ids' ou 'tableNumber'");
+    }
+    if (ids.size() > maxBulkStatusSize) {
+      logger.warn("Bulk status update request with {} ids exceeds the limit of {}",
+          ids.size(), maxBulkStatusSize);
+      return ResponseEntity.badRequest()
+          .body("No máximo " + maxBulkStatusSize + " pedidos por requisição");
+    }
+
+    OrderStatus newStatus;
+    OrderStatus fromStatus;
+    try {
+      newStatus = OrderStatus.from(request.getStatus());
+      fromStatus = request.getFromStatus() != null ? OrderStatus.from(request.getFromStatus()) : null;
+    } catch (IllegalArgumentException e) {
+      logger.warn("Invalid status attempted in bulk update: {}", e.getMessage());
+      return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    BulkStatusUpdateResultDTO result = byIds
+        ? orderService.updateStatus(ids, newStatus)
+        : orderService.updateStatusByTable(request.getTableNumber(), fromStatus, newStatus);
+    logger.info("Bulk status update to {} applied to {} of {} orders",
+        newStatus, result.getUpdated(), result.getResults().size());
+
+    updateOrderTimer.record(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
+    return ResponseEntity.ok(result);
+  }
+
 
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
@@ -186,21 +357,92 @@ public class OrderController {
     return response;
   }
 
+  /**
+   * Pedidos em aberto (pendentes, em preparo ou servidos), do mais antigo para o mais recente,
+   * lidos do modelo em memória, sem consulta ao banco. Filtros opcionais: mesa e idade mínima.
+   */
+  @GetMapping("/open")
+  public List<Order> getOpenOrders(
+      @RequestParam(required = false) Integer table,
+      @RequestParam(required = false) Long minAgeSeconds) {
+    logger.info("Received request for open orders (table: {}, minAgeSeconds: {}).",
+        table, minAgeSeconds);
+
+    java.time.LocalDateTime cutoff = minAgeSeconds != null
+        ? java.time.LocalDateTime.now().minusSeconds(minAgeSeconds)
+        : null;
+    List<Order> orders;
+    if (table != null) {
+      orders = openOrderReadModel.findByTable(table);
+      if (cutoff != null) {
+        orders = orders.stream()
+            .filter(order -> !order.getCreatedAt().isAfter(cutoff))
+            .collect(java.util.stream.Collectors.toList());
+      }
+    } else if (cutoff != null) {
+      orders = openOrderReadModel.findCreatedBefore(cutoff);
+    } else {
+      orders = openOrderReadModel.findAll();
+    }
+
+    logger.info("Returning {} open orders.", orders.size());
+    return orders;
+  }
+
   @GetMapping("/delayed-view")
-  public List<tcc.order_service.dto.DelayedOrderDTO> getDelayedOrdersForView() {
-    logger.info("Received request for delayed orders view from Spring Boot Admin.");
+  public List<tcc.order_service.dto.DelayedOrderDTO> getDelayedOrdersForView(
+      @RequestParam(defaultValue = "memory") String source) {
+    logger.info("Received request for delayed orders view from Spring Boot Admin (source: {}).", source);
+
+    if ("database".equalsIgnoreCase(source)) {
+      // Consulta direta ao banco em uma única instrução SQL, para conferência do índice em memória
+      return orderService.findDelayedOrderViews(
+          java.time.LocalDateTime.now().minus(delayedOrderDetector.getThreshold()));
+    }
 
-    LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(3);
-    List<Order> delayedOrders = orderService.findPendingOrdersOlderThan(cutoffTime);
+    // Lido do índice em memória mantido pelo detector, sem consulta ao banco
+    List<Order> delayedOrders = delayedOrderDetector.getDelayedOrders();
 
     return delayedOrders.stream()
         .map(this::convertToDto)
         .collect(java.util.stream.Collectors.toList());
   }
 
+  /**
+   * Stream SSE dos pedidos atrasados para a view customizada do SBA. Ao conectar, o cliente
+   * recebe o limite de atraso configurado (evento {@code threshold}, em segundos), um evento
+   * {@code add} para cada pedido já atrasado e, em seguida, os eventos
+   * {@code add}, {@code update} e {@code remove} à medida que o conjunto muda. Se o cliente não
+   * acompanhar as alterações, recebe {@code resync} e o stream é encerrado: ele deve reconectar
+   * para receber o conjunto atualizado.
+   */
+  @GetMapping(value = "/delayed-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public Flux<ServerSentEvent<Object>> streamDelayedOrders() {
+    logger.info("Delayed orders stream opened.");
+
+    Flux<ServerSentEvent<Object>> events = delayedOrderDetector.subscribe()
+        .map(this::toServerSentEvent)
+        .onErrorResume(Exceptions::isOverflow, e -> {
+          logger.warn("Delayed orders stream overflowed, asking client to resync: {}", e.getMessage());
+          return Flux.just(ServerSentEvent.builder().event(RESYNC_EVENT).build());
+        });
+
+    ServerSentEvent<Object> threshold = ServerSentEvent.<Object>builder(
+            Map.of("thresholdSeconds", delayedOrderDetector.getThreshold().toSeconds()))
+        .event("threshold")
+        .build();
+
+    Flux<ServerSentEvent<Object>> heartbeat = Flux.interval(Duration.ofSeconds(15))
+        .map(tick -> ServerSentEvent.builder().comment("keep-alive").build());
+
+    return Flux.merge(Flux.concat(Mono.just(threshold), events), heartbeat)
+        .takeUntil(event -> RESYNC_EVENT.equals(event.event()))
+        .doFinally(signal -> logger.info("Delayed orders stream closed ({}).", signal));
+  }
+
   /**
    * Endpoint para acionar manualmente a tarefa agendada de verificação de pedidos atrasados.
-   * Permite executar a tarefa sob demanda, além da execução automática a cada 30 segundos.
+   * Permite gerar o relatório sob demanda, além da execução automática a cada 30 segundos.
    *
    * @return Mensagem de confirmação da execução
    */
@@ -231,26 +473,34 @@ public class OrderController {
     }
   }
 
-  private tcc.order_service.dto.DelayedOrderDTO convertToDto(Order order) {
-      java.time.Duration delay = java.time.Duration.between(order.getCreatedAt(), java.time.LocalDateTime.now());
-      String formattedDelay = String.format("%dm %ds", delay.toMinutes(), delay.toSecondsPart());
+  private ServerSentEvent<Object> toServerSentEvent(DelayedOrderDetector.Change change) {
+    return switch (change.getType()) {
+      case ADDED -> ServerSentEvent.<Object>builder(convertToDto(change.getOrder())).event("add").build();
+      case UPDATED -> ServerSentEvent.<Object>builder(convertToDto(change.getOrder())).event("update").build();
+      case REMOVED -> ServerSentEvent.<Object>builder(Map.of("orderId", change.getOrderId())).event("remove").build();
+    };
+  }
 
+  // Visível no pacote para o OrderControllerBenchmark (src/jmh)
+  tcc.order_service.dto.DelayedOrderDTO convertToDto(Order order) {
       List<String> productDescriptions = order.getProducts().stream()
-          .map(p -> String.format("Cód: %d (Qtd: %d)", p.getProductCode(), p.getQuantity()))
+          .map(p -> tcc.order_service.dto.DelayedOrderDTO.describeProduct(p.getProductCode(), p.getQuantity()))
           .collect(java.util.stream.Collectors.toList());
 
-      return new tcc.order_service.dto.DelayedOrderDTO(
+      return tcc.order_service.dto.DelayedOrderDTO.of(
           order.getId(),
           order.getTableNumber(),
-          formattedDelay,
+          order.getCreatedAt(),
           productDescriptions
       );
   }
 
-  private boolean isValidStatusTransition(String newStatus) {
-    return switch (newStatus) {
-      case "PENDING", "CANCELED", "FINISHED" -> true;
-      default -> false;
-    };
+  private void writeNdjsonLine(OutputStream outputStream, Order order) {
+    try {
+      outputStream.write(objectMapper.writeValueAsBytes(order));
+      outputStream.write('\n');
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 }
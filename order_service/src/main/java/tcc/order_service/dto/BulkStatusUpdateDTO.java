@@ -0,0 +1,47 @@
+package tcc.order_service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pedido de alteração de status em lote: uma lista de ids ou um filtro por mesa (e,
+ * opcionalmente, pelo status atual).
+ */
+public class BulkStatusUpdateDTO {
+  private List<Long> ids = new ArrayList<>();
+  private Integer tableNumber;
+  private String fromStatus;
+  private String status;
+
+  public List<Long> getIds() {
+    return ids;
+  }
+
+  public void setIds(List<Long> ids) {
+    this.ids = ids;
+  }
+
+  public Integer getTableNumber() {
+    return tableNumber;
+  }
+
+  public void setTableNumber(Integer tableNumber) {
+    this.tableNumber = tableNumber;
+  }
+
+  public String getFromStatus() {
+    return fromStatus;
+  }
+
+  public void setFromStatus(String fromStatus) {
+    this.fromStatus = fromStatus;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public void setStatus(String status) {
+    this.status = status;
+  }
+}
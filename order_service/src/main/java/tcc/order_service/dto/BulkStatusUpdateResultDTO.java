@@ -0,0 +1,59 @@
+package tcc.order_service.dto;
+
+import java.util.List;
+
+public class BulkStatusUpdateResultDTO {
+
+  public enum Outcome {
+    UPDATED,
+    NOT_FOUND,
+    TRANSITION_NOT_ALLOWED
+  }
+
+  private final String status;
+  private final long updated;
+  private final List<Item> results;
+
+  public BulkStatusUpdateResultDTO(String status, long updated, List<Item> results) {
+    this.status = status;
+    this.updated = updated;
+    this.results = results;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public long getUpdated() {
+    return updated;
+  }
+
+  public List<Item> getResults() {
+    return results;
+  }
+
+  public static class Item {
+    private final Long id;
+    private final Outcome outcome;
+    // Status antes da alteração; null quando o pedido não existe
+    private final String previousStatus;
+
+    public Item(Long id, Outcome outcome, String previousStatus) {
+      this.id = id;
+      this.outcome = outcome;
+      this.previousStatus = previousStatus;
+    }
+
+    public Long getId() {
+      return id;
+    }
+
+    public Outcome getOutcome() {
+      return outcome;
+    }
+
+    public String getPreviousStatus() {
+      return previousStatus;
+    }
+  }
+}
@@ -1,20 +1,41 @@
 package tcc.order_service.dto;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public class DelayedOrderDTO {
   private final Long orderId;
   private final Integer tableNumber;
   private final String timeDelayed;
+  // Atraso em segundos no momento da geração, para que o cliente continue a contagem localmente
+  private final long delaySeconds;
   private final List<String> products;
 
-  public DelayedOrderDTO(Long orderId, Integer tableNumber, String timeDelayed, List<String> products) {
+  public DelayedOrderDTO(Long orderId, Integer tableNumber, String timeDelayed, long delaySeconds,
+      List<String> products) {
     this.orderId = orderId;
     this.tableNumber = tableNumber;
     this.timeDelayed = timeDelayed;
+    this.delaySeconds = delaySeconds;
     this.products = products;
   }
 
+  /**
+   * Monta o DTO calculando o atraso a partir de {@code createdAt} até agora. Usado tanto para
+   * os pedidos do índice em memória quanto para as linhas da projeção do banco.
+   */
+  public static DelayedOrderDTO of(Long orderId, Integer tableNumber, LocalDateTime createdAt,
+      List<String> products) {
+    Duration delay = Duration.between(createdAt, LocalDateTime.now());
+    String formattedDelay = String.format("%dm %ds", delay.toMinutes(), delay.toSecondsPart());
+    return new DelayedOrderDTO(orderId, tableNumber, formattedDelay, delay.toSeconds(), products);
+  }
+
+  public static String describeProduct(Long productCode, Integer quantity) {
+    return String.format("Cód: %d (Qtd: %d)", productCode, quantity);
+  }
+
   public Long getOrderId() {
     return orderId;
   }
@@ -27,6 +48,10 @@ public class DelayedOrderDTO {
     return timeDelayed;
   }
 
+  public long getDelaySeconds() {
+    return delaySeconds;
+  }
+
   public List<String> getProducts() {
     return products;
   }
@@ -0,0 +1,48 @@
+package tcc.order_service.dto;
+
+public class ProductPairCountDTO {
+  private final int rank;
+  private final long product1Id;
+  private final String product1Name;
+  private final long product2Id;
+  private final String product2Name;
+  private final long count;
+
+  public ProductPairCountDTO(int rank, long product1Id, String product1Name, long product2Id,
+      String product2Name, long count) {
+    this.rank = rank;
+    this.product1Id = product1Id;
+    this.product1Name = product1Name;
+    this.product2Id = product2Id;
+    this.product2Name = product2Name;
+    this.count = count;
+  }
+
+  public int getRank() {
+    return rank;
+  }
+
+  public long getProduct1Id() {
+    return product1Id;
+  }
+
+  public String getProduct1Name() {
+    return product1Name;
+  }
+
+  public long getProduct2Id() {
+    return product2Id;
+  }
+
+  public String getProduct2Name() {
+    return product2Name;
+  }
+
+  public String getPair() {
+    return product1Name + " - " + product2Name;
+  }
+
+  public long getCount() {
+    return count;
+  }
+}
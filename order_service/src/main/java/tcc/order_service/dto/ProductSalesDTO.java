@@ -0,0 +1,31 @@
+package tcc.order_service.dto;
+
+public class ProductSalesDTO {
+  private final long productId;
+  private final String productName;
+  private final long unitsSold;
+  private final long orders;
+
+  public ProductSalesDTO(long productId, String productName, long unitsSold, long orders) {
+    this.productId = productId;
+    this.productName = productName;
+    this.unitsSold = unitsSold;
+    this.orders = orders;
+  }
+
+  public long getProductId() {
+    return productId;
+  }
+
+  public String getProductName() {
+    return productName;
+  }
+
+  public long getUnitsSold() {
+    return unitsSold;
+  }
+
+  public long getOrders() {
+    return orders;
+  }
+}
@@ -0,0 +1,44 @@
+package tcc.order_service.dto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProductValidationDTO {
+  private Map<Long, String> products = new HashMap<>();
+  private List<Long> missing = new ArrayList<>();
+  private Long catalogVersion;
+
+  public ProductValidationDTO() {
+  }
+
+  public ProductValidationDTO(Map<Long, String> products, List<Long> missing) {
+    this.products = products;
+    this.missing = missing;
+  }
+
+  public Map<Long, String> getProducts() {
+    return products;
+  }
+
+  public void setProducts(Map<Long, String> products) {
+    this.products = products;
+  }
+
+  public List<Long> getMissing() {
+    return missing;
+  }
+
+  public void setMissing(List<Long> missing) {
+    this.missing = missing;
+  }
+
+  public Long getCatalogVersion() {
+    return catalogVersion;
+  }
+
+  public void setCatalogVersion(Long catalogVersion) {
+    this.catalogVersion = catalogVersion;
+  }
+}
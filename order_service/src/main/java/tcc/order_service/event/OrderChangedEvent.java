@@ -0,0 +1,70 @@
+package tcc.order_service.event;
+
+import tcc.order_service.model.Order;
+import tcc.order_service.model.OrderStatus;
+
+/**
+ * Evento publicado pelo {@code OrderService} sempre que um pedido é criado, alterado ou
+ * removido, permitindo que os componentes em memória (detecção de atrasos, visões) se
+ * mantenham sincronizados sem consultar o banco.
+ */
+public class OrderChangedEvent {
+
+  public enum Type {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    DELETED
+  }
+
+  private final Type type;
+  private final Long orderId;
+  // Estado do pedido após a alteração; null quando o pedido foi removido ou quando apenas o
+  // status mudou (atualização condicional, sem carregar a entidade)
+  private final Order order;
+  // Novo status, preenchido apenas em STATUS_CHANGED
+  private final OrderStatus status;
+
+  public OrderChangedEvent(Type type, Long orderId, Order order) {
+    this(type, orderId, order, null);
+  }
+
+  private OrderChangedEvent(Type type, Long orderId, Order order, OrderStatus status) {
+    this.type = type;
+    this.orderId = orderId;
+    this.order = order;
+    this.status = status;
+  }
+
+  public static OrderChangedEvent created(Order order) {
+    return new OrderChangedEvent(Type.CREATED, order.getId(), order);
+  }
+
+  public static OrderChangedEvent updated(Order order) {
+    return new OrderChangedEvent(Type.UPDATED, order.getId(), order);
+  }
+
+  public static OrderChangedEvent statusChanged(Long orderId, OrderStatus status) {
+    return new OrderChangedEvent(Type.STATUS_CHANGED, orderId, null, status);
+  }
+
+  public static OrderChangedEvent deleted(Long orderId) {
+    return new OrderChangedEvent(Type.DELETED, orderId, null);
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public Long getOrderId() {
+    return orderId;
+  }
+
+  public Order getOrder() {
+    return order;
+  }
+
+  public OrderStatus getStatus() {
+    return status;
+  }
+}
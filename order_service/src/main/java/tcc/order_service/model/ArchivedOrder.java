@@ -0,0 +1,88 @@
+package tcc.order_service.model;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pedido finalizado ou cancelado movido da tabela {@code orders} para o arquivo. Mantém o id
+ * original, para que as consultas por id continuem encontrando o pedido depois de arquivado.
+ * As linhas são gravadas pelo {@code OrderArchiveService} com INSERT ... SELECT.
+ */
+@Entity
+@Table(name = "orders_archive")
+public class ArchivedOrder {
+  @Id
+  private Long id;
+
+  @ElementCollection
+  @CollectionTable(name = "orders_archive_products", joinColumns = @JoinColumn(name = "order_id"))
+  private List<Order.OrderProduct> products = new ArrayList<>();
+
+  private Integer tableNumber;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 16)
+  private OrderStatus status;
+
+  private LocalDateTime createdAt;
+
+  private LocalDateTime lastUpdated;
+
+  private LocalDateTime archivedAt;
+
+  /**
+   * Cópia desanexada no formato da tabela principal, para as APIs que devolvem {@link Order}.
+   */
+  public Order toOrder() {
+    Order order = new Order();
+    order.setId(id);
+    order.setTableNumber(tableNumber);
+    order.setStatus(status != null ? status.name() : null);
+    order.setCreatedAt(createdAt);
+    order.setLastUpdated(lastUpdated);
+    List<Order.OrderProduct> copy = new ArrayList<>(products.size());
+    for (Order.OrderProduct product : products) {
+      copy.add(new Order.OrderProduct(product.getProductCode(), product.getQuantity()));
+    }
+    order.setProducts(copy);
+    return order;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public List<Order.OrderProduct> getProducts() {
+    return products;
+  }
+
+  public Integer getTableNumber() {
+    return tableNumber;
+  }
+
+  public OrderStatus getStatus() {
+    return status;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public LocalDateTime getLastUpdated() {
+    return lastUpdated;
+  }
+
+  public LocalDateTime getArchivedAt() {
+    return archivedAt;
+  }
+}
@@ -1,41 +1,71 @@
 package tcc.order_service.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Embeddable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import org.hibernate.annotations.BatchSize;
 
+// A busca de pendentes (agendador e view de atrasados) filtra por status e data de criação:
+// o índice composto evita varrer o histórico de pedidos finalizados
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(
+    name = "idx_orders_status_created_at", columnList = "status, createdAt"))
 public class Order {
+  // Sequência com alocação em blocos: os ids são obtidos sem ida ao banco por pedido e as
+  // inserções podem ser agrupadas em lotes JDBC
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+  @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
   private Long id;
 
+  // Nos caminhos sem fetch join (paginação, stream), os itens de vários pedidos são
+  // carregados juntos em uma consulta com IN em vez de uma consulta por pedido
   @ElementCollection
+  @BatchSize(size = 100)
   @CollectionTable(name = "order_products", joinColumns = @JoinColumn(name = "order_id"))
   private List<OrderProduct> products = new ArrayList<>();
 
   private Integer tableNumber;
 
-  private String status;
+  // Gravado sempre com o nome do enum, para que as consultas comparem por igualdade (e usem o
+  // índice) em vez de normalizar maiúsculas em cada linha
+  @Enumerated(EnumType.STRING)
+  @Column(length = 16)
+  private OrderStatus status;
 
   @Column(updatable = false)
   private LocalDateTime createdAt;
 
   private LocalDateTime lastUpdated;
 
+  // Chave enviada no cabeçalho Idempotency-Key da criação; a unicidade no banco impede pedidos
+  // duplicados mesmo quando a repetição não é encontrada no cache em memória
+  @JsonIgnore
+  @Column(unique = true, length = 100, updatable = false)
+  private String idempotencyKey;
+
+  // Impressão digital do corpo da criação: a mesma chave com outro conteúdo é rejeitada
+  @JsonIgnore
+  @Column(length = 64, updatable = false)
+  private String idempotencyFingerprint;
+
   @Embeddable
   public static class OrderProduct {
     @Column(name = "product_code")
@@ -68,6 +98,26 @@ public class Order {
     }
   }
 
+  /**
+   * Cópia desanexada do pedido, incluindo os itens, para os componentes que mantêm pedidos
+   * em memória fora do contexto de persistência.
+   */
+  public Order snapshot() {
+    Order copy = new Order();
+    copy.id = id;
+    copy.tableNumber = tableNumber;
+    copy.status = status;
+    copy.createdAt = createdAt;
+    copy.lastUpdated = lastUpdated;
+    copy.idempotencyKey = idempotencyKey;
+    copy.idempotencyFingerprint = idempotencyFingerprint;
+    copy.products = new ArrayList<>(products.size());
+    for (OrderProduct product : products) {
+      copy.products.add(new OrderProduct(product.getProductCode(), product.getQuantity()));
+    }
+    return copy;
+  }
+
   @PrePersist
   protected void onCreate() {
     createdAt = LocalDateTime.now();
@@ -104,11 +154,16 @@ public class Order {
   }
 
   public String getStatus() {
-    return status;
+    return status != null ? status.name() : null;
   }
 
+  /**
+   * Aceita o status em qualquer combinação de maiúsculas e minúsculas.
+   *
+   * @throws IllegalArgumentException se o status não existe
+   */
   public void setStatus(String status) {
-    this.status = status;
+    this.status = status != null ? OrderStatus.from(status) : null;
   }
 
   public LocalDateTime getCreatedAt() {
@@ -126,4 +181,20 @@ public class Order {
   public void setLastUpdated(LocalDateTime lastUpdated) {
     this.lastUpdated = lastUpdated;
   }
-}
\ No newline at end of file
+
+  public String getIdempotencyKey() {
+    return idempotencyKey;
+  }
+
+  public void setIdempotencyKey(String idempotencyKey) {
+    this.idempotencyKey = idempotencyKey;
+  }
+
+  public String getIdempotencyFingerprint() {
+    return idempotencyFingerprint;
+  }
+
+  public void setIdempotencyFingerprint(String idempotencyFingerprint) {
+    this.idempotencyFingerprint = idempotencyFingerprint;
+  }
+}
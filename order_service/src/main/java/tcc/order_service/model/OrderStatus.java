@@ -0,0 +1,77 @@
+package tcc.order_service.model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Ciclo de vida do pedido. As transições só avançam: um pedido pendente pode ir para preparo,
+ * ser servido, finalizado ou cancelado; pedidos finalizados e cancelados não mudam mais.
+ */
+public enum OrderStatus {
+  PENDING,
+  PREPARING,
+  SERVED,
+  FINISHED,
+  CANCELED;
+
+  private Set<OrderStatus> next;
+  private Set<OrderStatus> previous;
+
+  static {
+    PENDING.next = EnumSet.of(PREPARING, SERVED, FINISHED, CANCELED);
+    PREPARING.next = EnumSet.of(SERVED, FINISHED, CANCELED);
+    SERVED.next = EnumSet.of(FINISHED);
+    FINISHED.next = EnumSet.noneOf(OrderStatus.class);
+    CANCELED.next = EnumSet.noneOf(OrderStatus.class);
+
+    for (OrderStatus target : values()) {
+      Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+      for (OrderStatus source : values()) {
+        if (source.next.contains(target)) {
+          sources.add(source);
+        }
+      }
+      target.previous = Collections.unmodifiableSet(sources);
+      target.next = Collections.unmodifiableSet(target.next);
+    }
+  }
+
+  public boolean canTransitionTo(OrderStatus target) {
+    return next.contains(target);
+  }
+
+  /**
+   * Finalizado ou cancelado: o pedido não muda mais de status.
+   */
+  public boolean isTerminal() {
+    return next.isEmpty();
+  }
+
+  /**
+   * Status a partir dos quais é permitido chegar a este.
+   */
+  public Set<OrderStatus> allowedSources() {
+    return previous;
+  }
+
+  /**
+   * Converte o valor recebido na API ou gravado no banco, sem diferenciar maiúsculas. Aceita
+   * também a grafia britânica {@code cancelled}, usada em arquivos de importação.
+   */
+  public static OrderStatus from(String value) {
+    if (value != null) {
+      String normalized = value.trim().toUpperCase(Locale.ROOT);
+      if (normalized.equals("CANCELLED")) {
+        return CANCELED;
+      }
+      for (OrderStatus status : values()) {
+        if (status.name().equals(normalized)) {
+          return status;
+        }
+      }
+    }
+    throw new IllegalArgumentException("Status inválido: " + value);
+  }
+}
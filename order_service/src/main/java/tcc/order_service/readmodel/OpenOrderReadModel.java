@@ -0,0 +1,206 @@
+package tcc.order_service.readmodel;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tcc.order_service.event.OrderChangedEvent;
+import tcc.order_service.model.Order;
+import tcc.order_service.model.OrderStatus;
+import tcc.order_service.repository.OrderRepository;
+
+/**
+ * Modelo de leitura em memória dos pedidos em aberto (não finalizados nem cancelados),
+ * indexado por id, por mesa e por data de criação. É alimentado pelos {@link OrderChangedEvent}
+ * no mesmo thread da escrita, depois do commit (uma escrita desfeita não aparece no modelo), e
+ * reconstruído a partir do banco na inicialização.
+ *
+ * <p>As leituras não usam locks nem consultam o banco. As escritas de um mesmo pedido são
+ * serializadas pelo mapa principal; os índices secundários podem ficar brevemente à frente do
+ * mapa principal durante uma escrita, por isso as consultas sempre resolvem o pedido pelo id.
+ * Os pedidos devolvidos são cópias compartilhadas e não devem ser alterados.
+ */
+@Component
+public class OpenOrderReadModel {
+
+  private static final Logger logger = LoggerFactory.getLogger(OpenOrderReadModel.class);
+  private static final Comparator<Order> BY_CREATED_AT =
+      Comparator.comparing(Order::getCreatedAt).thenComparing(Order::getId);
+
+  private final OrderRepository orderRepository;
+
+  private final Map<Long, Order> byId = new ConcurrentHashMap<>();
+  private final Map<Integer, Set<Long>> byTable = new ConcurrentHashMap<>();
+  private final ConcurrentSkipListMap<AgeKey, Long> byCreatedAt = new ConcurrentSkipListMap<>();
+
+  public OpenOrderReadModel(OrderRepository orderRepository, MeterRegistry meterRegistry) {
+    this.orderRepository = orderRepository;
+    Gauge.builder("order.open", byId, Map::size)
+        .description("Pedidos em aberto no modelo de leitura em memória")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Recarrega do banco todos os pedidos em aberto.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    List<OrderStatus> open = new ArrayList<>();
+    for (OrderStatus status : OrderStatus.values()) {
+      if (!status.isTerminal()) {
+        open.add(status);
+      }
+    }
+
+    List<Order> orders = orderRepository.findByStatusInWithProducts(open);
+    orders.forEach(order -> apply(order.getId(), order.snapshot()));
+    logger.info("Modelo de pedidos em aberto reconstruído com {} pedidos.", orders.size());
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onOrderChanged(OrderChangedEvent event) {
+    Long id = event.getOrderId();
+    switch (event.getType()) {
+      case CREATED, UPDATED -> {
+        Order order = event.getOrder();
+        apply(id, isOpen(order) ? order.snapshot() : null);
+      }
+      case STATUS_CHANGED -> changeStatus(id, event.getStatus());
+      case DELETED -> apply(id, null);
+    }
+  }
+
+  public Optional<Order> findById(Long id) {
+    return Optional.ofNullable(byId.get(id));
+  }
+
+  /**
+   * Pedidos em aberto da mesa, do mais antigo para o mais recente.
+   */
+  public List<Order> findByTable(Integer tableNumber) {
+    Set<Long> ids = byTable.get(tableNumber);
+    if (ids == null) {
+      return List.of();
+    }
+    List<Order> orders = resolve(ids);
+    orders.sort(BY_CREATED_AT);
+    return orders;
+  }
+
+  /**
+   * Pedidos em aberto criados até {@code cutoff}, do mais antigo para o mais recente.
+   */
+  public List<Order> findCreatedBefore(LocalDateTime cutoff) {
+    return resolve(byCreatedAt.headMap(new AgeKey(cutoff, Long.MAX_VALUE), true).values());
+  }
+
+  /**
+   * Todos os pedidos em aberto, do mais antigo para o mais recente.
+   */
+  public List<Order> findAll() {
+    return resolve(byCreatedAt.values());
+  }
+
+  public int size() {
+    return byId.size();
+  }
+
+  private void changeStatus(Long id, OrderStatus status) {
+    byId.computeIfPresent(id, (key, current) -> {
+      unindex(current);
+      if (status.isTerminal()) {
+        return null;
+      }
+      Order changed = current.snapshot();
+      changed.setStatus(status.name());
+      changed.setLastUpdated(LocalDateTime.now());
+      index(changed);
+      return changed;
+    });
+  }
+
+  // Substitui (ou remove, se next for null) o pedido e suas entradas nos índices
+  private void apply(Long id, Order next) {
+    byId.compute(id, (key, previous) -> {
+      if (previous != null) {
+        unindex(previous);
+      }
+      if (next != null) {
+        index(next);
+      }
+      return next;
+    });
+  }
+
+  private void index(Order order) {
+    if (order.getTableNumber() != null) {
+      byTable.compute(order.getTableNumber(), (table, ids) -> {
+        Set<Long> tableIds = ids != null ? ids : ConcurrentHashMap.newKeySet();
+        tableIds.add(order.getId());
+        return tableIds;
+      });
+    }
+    if (order.getCreatedAt() != null) {
+      byCreatedAt.put(new AgeKey(order.getCreatedAt(), order.getId()), order.getId());
+    }
+  }
+
+  private void unindex(Order order) {
+    if (order.getTableNumber() != null) {
+      byTable.computeIfPresent(order.getTableNumber(), (table, ids) -> {
+        ids.remove(order.getId());
+        return ids.isEmpty() ? null : ids;
+      });
+    }
+    if (order.getCreatedAt() != null) {
+      byCreatedAt.remove(new AgeKey(order.getCreatedAt(), order.getId()));
+    }
+  }
+
+  private List<Order> resolve(Collection<Long> ids) {
+    List<Order> orders = new ArrayList<>(ids.size());
+    for (Long id : ids) {
+      Order order = byId.get(id);
+      if (order != null) {
+        orders.add(order);
+      }
+    }
+    return orders;
+  }
+
+  private static boolean isOpen(Order order) {
+    return order != null && order.getStatus() != null
+        && !OrderStatus.from(order.getStatus()).isTerminal();
+  }
+
+  private static final class AgeKey implements Comparable<AgeKey> {
+    private final LocalDateTime createdAt;
+    private final long id;
+
+    private AgeKey(LocalDateTime createdAt, long id) {
+      this.createdAt = createdAt;
+      this.id = id;
+    }
+
+    @Override
+    public int compareTo(AgeKey other) {
+      int result = createdAt.compareTo(other.createdAt);
+      return result != 0 ? result : Long.compare(id, other.id);
+    }
+  }
+}
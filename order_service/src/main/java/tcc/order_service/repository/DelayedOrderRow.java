@@ -0,0 +1,20 @@
+package tcc.order_service.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha da projeção de pedidos atrasados: um item de pedido com os dados do pedido, lida sem
+ * carregar a entidade {@code Order}.
+ */
+public interface DelayedOrderRow {
+
+  Long getOrderId();
+
+  Integer getTableNumber();
+
+  LocalDateTime getCreatedAt();
+
+  Long getProductCode();
+
+  Integer getQuantity();
+}
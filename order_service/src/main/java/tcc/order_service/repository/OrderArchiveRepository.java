@@ -0,0 +1,48 @@
+package tcc.order_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import tcc.order_service.model.ArchivedOrder;
+import tcc.order_service.model.OrderStatus;
+
+public interface OrderArchiveRepository extends JpaRepository<ArchivedOrder, Long> {
+
+  // Leitura por id das APIs: os itens vêm na mesma consulta
+  @Override
+  @EntityGraph(attributePaths = "products")
+  Optional<ArchivedOrder> findById(Long id);
+
+  @Query("SELECT a.status FROM ArchivedOrder a WHERE a.id = :id")
+  Optional<OrderStatus> findStatusById(@Param("id") Long id);
+
+  @Query("SELECT a.id AS id, a.status AS status FROM ArchivedOrder a WHERE a.id IN :ids")
+  List<ArchivedStatusRow> findStatusesByIds(@Param("ids") Collection<Long> ids);
+
+  // Cópia em bloco a partir da tabela principal, sem carregar entidades
+  @Modifying
+  @Query(value = "INSERT INTO orders_archive "
+      + "(id, table_number, status, created_at, last_updated, archived_at) "
+      + "SELECT id, table_number, status, created_at, last_updated, :now "
+      + "FROM orders WHERE id IN :ids", nativeQuery = true)
+  int copyOrders(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+  @Modifying
+  @Query(value = "INSERT INTO orders_archive_products (order_id, product_code, quantity) "
+      + "SELECT order_id, product_code, quantity FROM order_products WHERE order_id IN :ids",
+      nativeQuery = true)
+  int copyProducts(@Param("ids") Collection<Long> ids);
+
+  interface ArchivedStatusRow {
+
+    Long getId();
+
+    OrderStatus getStatus();
+  }
+}
@@ -1,14 +1,105 @@
 package tcc.order_service.repository;
 
+import jakarta.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import tcc.order_service.model.Order;
+import tcc.order_service.model.OrderStatus;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-  @Query("SELECT o FROM Order o WHERE o.status = 'pending' AND o.createdAt <= :cutoffTime")
+  // Os itens são carregados junto com os pedidos, evitando uma consulta por pedido (N+1)
+  @Override
+  @EntityGraph(attributePaths = "products")
+  List<Order> findAll();
+
+  @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.products "
+      + "WHERE o.status = tcc.order_service.model.OrderStatus.PENDING "
+      + "AND o.createdAt <= :cutoffTime")
   List<Order> findPendingOrdersOlderThan(@Param("cutoffTime") LocalDateTime cutoffTime);
-}
\ No newline at end of file
+
+  @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.products "
+      + "WHERE o.status = tcc.order_service.model.OrderStatus.PENDING")
+  List<Order> findAllPendingWithProducts();
+
+  @EntityGraph(attributePaths = "products")
+  Optional<Order> findByIdempotencyKey(String idempotencyKey);
+
+  @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.products WHERE o.status IN :statuses")
+  List<Order> findByStatusInWithProducts(@Param("statuses") Collection<OrderStatus> statuses);
+
+  // Projeção da view de atrasados: uma linha por item, montada em DTO sem carregar entidades
+  @Query("SELECT o.id AS orderId, o.tableNumber AS tableNumber, o.createdAt AS createdAt, "
+      + "p.productCode AS productCode, p.quantity AS quantity "
+      + "FROM Order o LEFT JOIN o.products p "
+      + "WHERE o.status = tcc.order_service.model.OrderStatus.PENDING "
+      + "AND o.createdAt <= :cutoffTime "
+      + "ORDER BY o.createdAt, o.id")
+  List<DelayedOrderRow> findDelayedOrderRows(@Param("cutoffTime") LocalDateTime cutoffTime);
+
+  /**
+   * Troca o status em uma única instrução, apenas se o status atual for um dos permitidos.
+   * Devolve 0 quando o pedido não existe ou quando outra alteração chegou antes.
+   */
+  @Modifying
+  @Query("UPDATE Order o SET o.status = :status, o.lastUpdated = :now "
+      + "WHERE o.id = :id AND o.status IN :allowedFrom")
+  int updateStatusIfIn(@Param("id") Long id, @Param("status") OrderStatus status,
+      @Param("allowedFrom") Collection<OrderStatus> allowedFrom, @Param("now") LocalDateTime now);
+
+  @Query("SELECT o.status FROM Order o WHERE o.id = :id")
+  Optional<OrderStatus> findStatusById(@Param("id") Long id);
+
+  // Alteração de status em lote: as linhas são travadas, avaliadas e alteradas em um só UPDATE
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT o FROM Order o WHERE o.id IN :ids")
+  List<Order> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT o FROM Order o WHERE o.tableNumber = :tableNumber AND o.status IN :statuses")
+  List<Order> findByTableNumberAndStatusForUpdate(@Param("tableNumber") Integer tableNumber,
+      @Param("statuses") Collection<OrderStatus> statuses);
+
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE Order o SET o.status = :status, o.lastUpdated = :now WHERE o.id IN :ids")
+  int updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status,
+      @Param("now") LocalDateTime now);
+
+  // Arquivamento: candidatos em ordem de criação (índice status, created_at) e remoção em bloco
+  @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.createdAt < :cutoff "
+      + "ORDER BY o.createdAt")
+  List<Long> findIdsToArchive(@Param("statuses") Collection<OrderStatus> statuses,
+      @Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+  @Query("SELECT MIN(o.createdAt) FROM Order o WHERE o.status IN :statuses AND o.createdAt < :cutoff")
+  Optional<LocalDateTime> findOldestCreatedAt(@Param("statuses") Collection<OrderStatus> statuses,
+      @Param("cutoff") LocalDateTime cutoff);
+
+  @Modifying
+  @Query(value = "DELETE FROM order_products WHERE order_id IN :ids", nativeQuery = true)
+  int deleteProductsByOrderIds(@Param("ids") Collection<Long> ids);
+
+  @Modifying
+  @Query("DELETE FROM Order o WHERE o.id IN :ids")
+  int deleteByIds(@Param("ids") Collection<Long> ids);
+
+  // Paginação por cursor (keyset) sobre o id
+  List<Order> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+  // Exportação completa: ids em blocos por cursor e os pedidos de cada bloco com os itens
+  @Query("SELECT o.id FROM Order o WHERE o.id > :afterId ORDER BY o.id")
+  List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+  @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.products WHERE o.id IN :ids "
+      + "ORDER BY o.id")
+  List<Order> findAllWithProductsByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,288 @@
+package tcc.order_service.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import tcc.order_service.event.OrderChangedEvent;
+import tcc.order_service.model.Order;
+import tcc.order_service.model.OrderStatus;
+import tcc.order_service.repository.OrderRepository;
+
+/**
+ * Índice em memória dos prazos dos pedidos pendentes. Cada pedido pendente entra em uma
+ * fila de prazos ordenada por {@code createdAt + threshold}; uma thread dedicada dorme até o
+ * próximo prazo e marca o pedido como atrasado no momento em que ele vence, sem varrer o banco.
+ *
+ * <p>O índice é alimentado pelos {@link OrderChangedEvent}, aplicados somente depois do commit
+ * da escrita, e reconstruído a partir do banco na inicialização.
+ *
+ * <p>As transições de um pedido (pendente, atrasado, fora do índice) feitas pela thread do
+ * detector e pelas threads de requisição são serializadas por um único lock: sem ele, um pedido
+ * finalizado entre a saída de {@code pendingOrders} e a entrada em {@code delayedOrders}
+ * ficaria como atrasado para sempre. As leituras não usam o lock.
+ *
+ * <p>Os assinantes das alterações ({@link #subscribe}) recebem o conjunto atual e depois as
+ * alterações, cada um pela própria fila limitada: um cliente lento não perde alterações em
+ * silêncio nem atrasa os demais.
+ */
+@Component
+public class DelayedOrderDetector {
+
+  private static final Logger logger = LoggerFactory.getLogger(DelayedOrderDetector.class);
+  private static final String PENDING = OrderStatus.PENDING.name();
+
+  private final OrderRepository orderRepository;
+  private final Duration threshold;
+  private final int subscriberBufferSize;
+
+  // Pedidos pendentes ainda dentro do prazo, por id
+  private final Map<Long, Order> pendingOrders = new ConcurrentHashMap<>();
+  // Pedidos pendentes que já ultrapassaram o prazo, por id
+  private final Map<Long, Order> delayedOrders = new ConcurrentHashMap<>();
+  private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+  // Serializa as transições entre pendingOrders e delayedOrders
+  private final Object lock = new Object();
+  // Fila de alterações de cada assinante conectado
+  private final Set<Sinks.Many<Change>> subscribers = ConcurrentHashMap.newKeySet();
+
+  private Thread worker;
+
+  public DelayedOrderDetector(
+      OrderRepository orderRepository,
+      @Value("${orders.delay.threshold:3m}") Duration threshold,
+      @Value("${orders.delay.stream.buffer-size:2048}") int subscriberBufferSize) {
+    this.orderRepository = orderRepository;
+    this.threshold = threshold;
+    this.subscriberBufferSize = subscriberBufferSize;
+  }
+
+  public Duration getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Pedidos atualmente atrasados, do mais antigo para o mais recente.
+   */
+  public List<Order> getDelayedOrders() {
+    return delayedOrders.values().stream()
+        .sorted(Comparator.comparing(Order::getCreatedAt))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Um {@code ADDED} para cada pedido já atrasado, seguido das alterações (entrada, atualização
+   * e saída) no conjunto. O snapshot é lido e o assinante registrado sob o lock das transições,
+   * então toda alteração posterior chega depois do snapshot e nenhuma se perde entre os dois.
+   *
+   * <p>As alterações aguardam na fila do assinante enquanto ele não as consome. Se a fila
+   * encher, o fluxo termina com erro de overflow ({@link Exceptions#isOverflow}) e o assinante
+   * deve assinar de novo para receber um snapshot atualizado.
+   */
+  public Flux<Change> subscribe() {
+    return Flux.defer(() -> {
+      Sinks.Many<Change> subscriber = Sinks.many().unicast()
+          .onBackpressureBuffer(Queues.<Change>get(subscriberBufferSize).get());
+      List<Change> snapshot;
+      synchronized (lock) {
+        snapshot = getDelayedOrders().stream()
+            .map(order -> new Change(Change.Type.ADDED, order.getId(), order))
+            .collect(Collectors.toList());
+        subscribers.add(subscriber);
+      }
+      return Flux.concat(Flux.fromIterable(snapshot), subscriber.asFlux())
+          .doFinally(signal -> subscribers.remove(subscriber));
+    });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    rebuild();
+
+    worker = new Thread(this::awaitDeadlines, "delayed-order-detector");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (worker != null) {
+      worker.interrupt();
+    }
+  }
+
+  /**
+   * Recarrega do banco todos os pedidos pendentes, reconstruindo o índice de prazos.
+   */
+  public void rebuild() {
+    List<Order> orders = orderRepository.findAllPendingWithProducts();
+    orders.forEach(order -> track(order.snapshot()));
+    logger.info("Índice de pedidos pendentes reconstruído com {} pedidos (limite de atraso: {}).",
+        orders.size(), threshold);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onOrderChanged(OrderChangedEvent event) {
+    // STATUS_CHANGED não traz o pedido: nenhuma transição volta para PENDING, então o pedido
+    // sempre deixa o índice
+    Order order = event.getOrder();
+    if (order != null && isPending(order)) {
+      track(order.snapshot());
+    } else {
+      untrack(event.getOrderId());
+    }
+  }
+
+  private void track(Order order) {
+    if (order.getCreatedAt() == null) {
+      return;
+    }
+
+    LocalDateTime deadline = order.getCreatedAt().plus(threshold);
+    long deadlineMillis = deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    synchronized (lock) {
+      if (delayedOrders.containsKey(order.getId())
+          || deadlineMillis <= System.currentTimeMillis()) {
+        pendingOrders.remove(order.getId());
+        markDelayed(order);
+      } else {
+        pendingOrders.put(order.getId(), order);
+        deadlines.put(new Deadline(order, deadlineMillis));
+      }
+    }
+  }
+
+  private void untrack(Long orderId) {
+    // Os prazos na fila são descartados de forma preguiçosa quando vencem
+    synchronized (lock) {
+      pendingOrders.remove(orderId);
+      if (delayedOrders.remove(orderId) != null) {
+        emit(new Change(Change.Type.REMOVED, orderId, null));
+      }
+    }
+  }
+
+  private void awaitDeadlines() {
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        Deadline deadline = deadlines.take();
+        // Só conta se o pedido ainda estiver pendente com o mesmo estado que gerou o prazo
+        synchronized (lock) {
+          if (pendingOrders.remove(deadline.order.getId(), deadline.order)) {
+            markDelayed(deadline.order);
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (RuntimeException e) {
+        logger.error("Erro ao processar prazo de pedido: {}", e.getMessage(), e);
+      }
+    }
+  }
+
+  // Chamado com o lock
+  private void markDelayed(Order order) {
+    if (delayedOrders.put(order.getId(), order) == null) {
+      logger.warn(
+          " ATENÇÃO - PEDIDO ATRASADO !!!  Pedido ID {} está atrasado (criado em: {}).",
+          order.getId(),
+          order.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+      );
+      emit(new Change(Change.Type.ADDED, order.getId(), order));
+    } else {
+      emit(new Change(Change.Type.UPDATED, order.getId(), order));
+    }
+  }
+
+  // Chamado com o lock: as emissões já são serializadas
+  private void emit(Change change) {
+    for (Sinks.Many<Change> subscriber : subscribers) {
+      if (subscriber.tryEmitNext(change) == Sinks.EmitResult.FAIL_OVERFLOW) {
+        subscribers.remove(subscriber);
+        subscriber.tryEmitError(Exceptions.failWithOverflow(
+            "Fila do assinante de pedidos atrasados cheia (" + subscriberBufferSize + ")"));
+      }
+    }
+  }
+
+  private boolean isPending(Order order) {
+    return PENDING.equals(order.getStatus());
+  }
+
+  /**
+   * Alteração no conjunto de pedidos atrasados; {@code order} é null quando o pedido saiu.
+   */
+  public static final class Change {
+
+    public enum Type {
+      ADDED,
+      UPDATED,
+      REMOVED
+    }
+
+    private final Type type;
+    private final Long orderId;
+    private final Order order;
+
+    private Change(Type type, Long orderId, Order order) {
+      this.type = type;
+      this.orderId = orderId;
+      this.order = order;
+    }
+
+    public Type getType() {
+      return type;
+    }
+
+    public Long getOrderId() {
+      return orderId;
+    }
+
+    public Order getOrder() {
+      return order;
+    }
+  }
+
+  private static final class Deadline implements Delayed {
+    private final Order order;
+    private final long deadlineMillis;
+
+    private Deadline(Order order, long deadlineMillis) {
+      this.order = order;
+      this.deadlineMillis = deadlineMillis;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(deadlineMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      return Long.compare(deadlineMillis, ((Deadline) other).deadlineMillis);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package tcc.order_service.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tcc.order_service.service.OrderArchiveService;
+
+/**
+ * Arquivamento periódico dos pedidos encerrados mais antigos que {@code orders.archive.age}.
+ * Cada execução move no máximo {@code max-chunks-per-run} blocos; o que sobrar aparece na
+ * métrica de atraso ({@code order.archive.lag}) e fica para a próxima execução.
+ */
+@Component
+public class OrderArchivalTask {
+
+  private static final Logger logger = LoggerFactory.getLogger(OrderArchivalTask.class);
+
+  private final OrderArchiveService orderArchiveService;
+  private final boolean enabled;
+  private final Duration age;
+  private final int chunkSize;
+  private final int maxChunksPerRun;
+
+  private final Counter movedCounter;
+  private final AtomicLong lagSeconds = new AtomicLong();
+
+  public OrderArchivalTask(
+      OrderArchiveService orderArchiveService,
+      MeterRegistry meterRegistry,
+      @Value("${orders.archive.enabled:true}") boolean enabled,
+      @Value("${orders.archive.age:7d}") Duration age,
+      @Value("${orders.archive.chunk-size:500}") int chunkSize,
+      @Value("${orders.archive.max-chunks-per-run:20}") int maxChunksPerRun) {
+    this.orderArchiveService = orderArchiveService;
+    this.enabled = enabled;
+    this.age = age;
+    this.chunkSize = chunkSize;
+    this.maxChunksPerRun = maxChunksPerRun;
+
+    this.movedCounter = Counter.builder("order.archive.moved")
+        .description("Pedidos encerrados movidos para o arquivo")
+        .register(meterRegistry);
+    Gauge.builder("order.archive.lag", lagSeconds, AtomicLong::get)
+        .description("Há quanto tempo o pedido encerrado mais antigo da tabela principal já "
+            + "deveria ter sido arquivado")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${orders.archive.interval-ms:60000}",
+      initialDelayString = "${orders.archive.interval-ms:60000}")
+  public void archiveFinishedOrders() {
+    if (!enabled) {
+      return;
+    }
+
+    LocalDateTime cutoff = LocalDateTime.now().minus(age);
+    long moved = 0;
+    try {
+      for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+        int count = orderArchiveService.archiveChunk(cutoff, chunkSize);
+        moved += count;
+        movedCounter.increment(count);
+        if (count < chunkSize) {
+          break;
+        }
+      }
+      lagSeconds.set(orderArchiveService.findOldestArchivable(cutoff)
+          .map(oldest -> Duration.between(oldest, cutoff).getSeconds())
+          .orElse(0L));
+    } catch (RuntimeException e) {
+      logger.error("Erro ao arquivar pedidos encerrados: {}", e.getMessage(), e);
+    }
+
+    if (moved > 0) {
+      logger.info("{} pedidos encerrados movidos para o arquivo (criados antes de {}).",
+          moved, cutoff);
+    }
+  }
+}
@@ -1,31 +1,33 @@
 package tcc.order_service.scheduler;
 
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import tcc.order_service.model.Order;
-import tcc.order_service.service.OrderService;
 
 import java.util.List;
 @Component
 public class OrderProcessingTask {
 
   private static final Logger logger = LoggerFactory.getLogger(OrderProcessingTask.class);
-  private final OrderService orderService;
+  private final DelayedOrderDetector delayedOrderDetector;
 
-  public OrderProcessingTask(OrderService orderService) {
-    this.orderService = orderService;
+  public OrderProcessingTask(DelayedOrderDetector delayedOrderDetector) {
+    this.delayedOrderDetector = delayedOrderDetector;
   }
 
+  /**
+   * Relatório periódico dos pedidos atrasados. A detecção em si é feita no momento em que o
+   * prazo vence pelo {@link DelayedOrderDetector}; aqui apenas o índice em memória é lido.
+   */
   @Scheduled(fixedRate = 30000)
   public void processPendingOrders() {
-    logger.info("Verificando pedidos pendentes com mais de 3 minutos...");
+    logger.info("Verificando pedidos pendentes com mais de {} minutos...",
+        delayedOrderDetector.getThreshold().toMinutes());
 
-    LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(3);
-    List<Order> delayedOrders = orderService.findPendingOrdersOlderThan(cutoffTime);
+    List<Order> delayedOrders = delayedOrderDetector.getDelayedOrders();
 
     for (Order order : delayedOrders) {
       try {
@@ -45,4 +47,4 @@ public class OrderProcessingTask {
       logger.info("Total de pedidos atrasados: {}", delayedOrders.size());
     }
   }
-}
\ No newline at end of file
+}
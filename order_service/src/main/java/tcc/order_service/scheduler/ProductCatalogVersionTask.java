@@ -0,0 +1,50 @@
+package tcc.order_service.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tcc.order_service.service.ProductCatalogService;
+
+@Component
+public class ProductCatalogVersionTask {
+
+  private static final Logger logger = LoggerFactory.getLogger(ProductCatalogVersionTask.class);
+  private final ProductCatalogService productCatalogService;
+  private final boolean bloomFilterEnabled;
+
+  public ProductCatalogVersionTask(
+      ProductCatalogService productCatalogService,
+      @Value("${product-catalog.bloom-filter.enabled:true}") boolean bloomFilterEnabled) {
+    this.productCatalogService = productCatalogService;
+    this.bloomFilterEnabled = bloomFilterEnabled;
+  }
+
+  @Scheduled(fixedDelayString = "${product-catalog.cache.version-check-interval-ms:5000}")
+  public void checkCatalogVersion() {
+    try {
+      productCatalogService.refreshCatalogVersion();
+    } catch (Exception e) {
+      logger.debug("Não foi possível verificar a versão do catálogo: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Mantém o filtro de Bloom do catálogo atualizado. O intervalo curto limita o tempo em que
+   * um produto recém-criado ainda é rejeitado pelo filtro antigo; sem mudança no catálogo, o
+   * product_service responde 304 sem corpo.
+   */
+  @Scheduled(fixedDelayString = "${product-catalog.bloom-filter.refresh-interval-ms:1000}")
+  public void refreshBloomFilter() {
+    if (!bloomFilterEnabled) {
+      return;
+    }
+    try {
+      productCatalogService.refreshBloomFilter();
+    } catch (Exception e) {
+      logger.debug("Não foi possível atualizar o filtro de Bloom do catálogo: {}",
+          e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package tcc.order_service.service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tcc.order_service.model.OrderStatus;
+import tcc.order_service.repository.OrderArchiveRepository;
+import tcc.order_service.repository.OrderRepository;
+
+/**
+ * Move pedidos encerrados (finalizados ou cancelados) da tabela {@code orders} para
+ * {@code orders_archive}, em blocos, para que a tabela principal fique do tamanho dos pedidos
+ * em andamento. Pedidos encerrados não mudam mais de status, então a cópia não disputa
+ * alterações com as APIs.
+ */
+@Service
+public class OrderArchiveService {
+
+  static final Set<OrderStatus> ARCHIVABLE =
+      Collections.unmodifiableSet(EnumSet.of(OrderStatus.FINISHED, OrderStatus.CANCELED));
+
+  private final OrderRepository orderRepository;
+  private final OrderArchiveRepository orderArchiveRepository;
+
+  public OrderArchiveService(OrderRepository orderRepository,
+      OrderArchiveRepository orderArchiveRepository) {
+    this.orderRepository = orderRepository;
+    this.orderArchiveRepository = orderArchiveRepository;
+  }
+
+  /**
+   * Move, em uma transação, até {@code chunkSize} pedidos encerrados criados antes de
+   * {@code cutoff}, com seus itens: quatro instruções em bloco, independentemente do tamanho.
+   *
+   * @return número de pedidos movidos
+   */
+  @Transactional
+  public int archiveChunk(LocalDateTime cutoff, int chunkSize) {
+    List<Long> ids = orderRepository.findIdsToArchive(ARCHIVABLE, cutoff, Limit.of(chunkSize));
+    if (ids.isEmpty()) {
+      return 0;
+    }
+
+    orderArchiveRepository.copyOrders(ids, LocalDateTime.now());
+    orderArchiveRepository.copyProducts(ids);
+    orderRepository.deleteProductsByOrderIds(ids);
+    return orderRepository.deleteByIds(ids);
+  }
+
+  /**
+   * Data de criação do pedido encerrado mais antigo que já deveria ter sido arquivado.
+   */
+  @Transactional(readOnly = true)
+  public Optional<LocalDateTime> findOldestArchivable(LocalDateTime cutoff) {
+    return orderRepository.findOldestCreatedAt(ARCHIVABLE, cutoff);
+  }
+}
@@ -0,0 +1,231 @@
+package tcc.order_service.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tcc.order_service.dto.OrderImportResultDTO;
+import tcc.order_service.dto.ProductValidationDTO;
+import tcc.order_service.model.Order;
+
+/**
+ * Importação em massa de pedidos a partir de CSV (formato do {@code pedidos.csv}) ou NDJSON.
+ * A entrada é lida linha a linha e processada em blocos: os produtos de cada bloco são
+ * validados em uma única consulta ao catálogo e os pedidos válidos são gravados em lotes JDBC.
+ */
+@Service
+public class OrderImportService {
+
+  public enum Format {
+    CSV,
+    NDJSON
+  }
+
+  private static final TypeReference<List<Order.OrderProduct>> PRODUCT_LIST =
+      new TypeReference<>() {};
+
+  private final OrderService orderService;
+  private final ProductCatalogService productCatalogService;
+  private final ObjectMapper objectMapper;
+  private final int chunkSize;
+  private final int maxReportedErrors;
+
+  public OrderImportService(
+      OrderService orderService,
+      ProductCatalogService productCatalogService,
+      ObjectMapper objectMapper,
+      @Value("${orders.import.chunk-size:500}") int chunkSize,
+      @Value("${orders.import.max-reported-errors:100}") int maxReportedErrors) {
+    this.orderService = orderService;
+    this.productCatalogService = productCatalogService;
+    this.objectMapper = objectMapper;
+    this.chunkSize = chunkSize;
+    this.maxReportedErrors = maxReportedErrors;
+  }
+
+  public OrderImportResultDTO importOrders(Reader reader, Format format) throws IOException {
+    Progress progress = new Progress();
+    List<Row> chunk = new ArrayList<>(chunkSize);
+
+    BufferedReader lines = new BufferedReader(reader);
+    String line;
+    long lineNumber = 0;
+    while ((line = lines.readLine()) != null) {
+      lineNumber++;
+      if (line.isBlank() || (format == Format.CSV && lineNumber == 1 && isCsvHeader(line))) {
+        continue;
+      }
+
+      progress.rowsRead++;
+      try {
+        chunk.add(new Row(lineNumber, format == Format.CSV ? parseCsv(line) : parseNdjson(line)));
+      } catch (IOException | RuntimeException e) {
+        progress.fail(lineNumber, "Linha inválida: " + e.getMessage());
+      }
+
+      if (chunk.size() >= chunkSize) {
+        importChunk(chunk, progress);
+        chunk.clear();
+      }
+    }
+    if (!chunk.isEmpty()) {
+      importChunk(chunk, progress);
+    }
+
+    return progress.toResult();
+  }
+
+  private void importChunk(List<Row> chunk, Progress progress) {
+    List<Long> productIds = chunk.stream()
+        .flatMap(row -> row.order.getProducts().stream())
+        .map(Order.OrderProduct::getProductCode)
+        .distinct()
+        .collect(Collectors.toList());
+
+    // Uma única consulta ao catálogo para todos os produtos do bloco
+    ProductValidationDTO validation;
+    try {
+      validation = productCatalogService.validateProducts(productIds).block();
+    } catch (RuntimeException e) {
+      chunk.forEach(row -> progress.fail(row.line, "Falha ao validar produtos: " + e.getMessage()));
+      return;
+    }
+    Set<Long> missing = new HashSet<>(validation.getMissing());
+
+    List<Row> valid = new ArrayList<>(chunk.size());
+    for (Row row : chunk) {
+      List<Long> rowMissing = row.order.getProducts().stream()
+          .map(Order.OrderProduct::getProductCode)
+          .filter(missing::contains)
+          .distinct()
+          .collect(Collectors.toList());
+      if (rowMissing.isEmpty()) {
+        valid.add(row);
+      } else {
+        progress.fail(row.line, "Produto não encontrado: " + rowMissing.stream()
+            .map(String::valueOf)
+            .collect(Collectors.joining(", ")));
+      }
+    }
+    if (valid.isEmpty()) {
+      return;
+    }
+
+    try {
+      orderService.saveBatch(valid.stream().map(row -> row.order).collect(Collectors.toList()));
+      progress.imported += valid.size();
+    } catch (RuntimeException e) {
+      valid.forEach(row -> progress.fail(row.line, "Falha ao gravar o lote: " + e.getMessage()));
+    }
+  }
+
+  private Order parseCsv(String line) throws IOException {
+    List<String> fields = splitCsvLine(line);
+    if (fields.size() != 3) {
+      throw new IllegalArgumentException(
+          "esperadas 3 colunas (tableNumber, products, status), encontradas " + fields.size());
+    }
+
+    Order order = new Order();
+    order.setTableNumber(Integer.valueOf(fields.get(0).trim()));
+    order.setProducts(objectMapper.readValue(fields.get(1), PRODUCT_LIST));
+    order.setStatus(fields.get(2).trim());
+    return validate(order);
+  }
+
+  private Order parseNdjson(String line) throws IOException {
+    Order order = objectMapper.readValue(line, Order.class);
+    order.setId(null);
+    return validate(order);
+  }
+
+  private static Order validate(Order order) {
+    if (order.getProducts() == null || order.getProducts().isEmpty()) {
+      throw new IllegalArgumentException("pedido sem produtos");
+    }
+    boolean incomplete = order.getProducts().stream().anyMatch(product ->
+        Objects.isNull(product.getProductCode()) || Objects.isNull(product.getQuantity()));
+    if (incomplete) {
+      throw new IllegalArgumentException("item sem productCode ou quantity");
+    }
+    return order;
+  }
+
+  private static boolean isCsvHeader(String line) {
+    return line.trim().toLowerCase().startsWith("tablenumber");
+  }
+
+  /**
+   * Divide uma linha CSV em campos, respeitando campos entre aspas e aspas duplicadas.
+   */
+  private static List<String> splitCsvLine(String line) {
+    List<String> fields = new ArrayList<>(3);
+    StringBuilder current = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          current.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          current.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(current.toString());
+        current.setLength(0);
+      } else {
+        current.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("aspas não fechadas");
+    }
+    fields.add(current.toString());
+    return fields;
+  }
+
+  private static final class Row {
+    private final long line;
+    private final Order order;
+
+    private Row(long line, Order order) {
+      this.line = line;
+      this.order = order;
+    }
+  }
+
+  private final class Progress {
+    private final long start = System.currentTimeMillis();
+    private final List<OrderImportResultDTO.RowError> errors = new ArrayList<>();
+    private long rowsRead;
+    private long imported;
+    private long failed;
+
+    private void fail(long line, String message) {
+      failed++;
+      // Apenas as primeiras falhas são detalhadas; as demais entram somente na contagem
+      if (errors.size() < maxReportedErrors) {
+        errors.add(new OrderImportResultDTO.RowError(line, message));
+      }
+    }
+
+    private OrderImportResultDTO toResult() {
+      return new OrderImportResultDTO(
+          rowsRead, imported, failed, System.currentTimeMillis() - start, errors);
+    }
+  }
+}
@@ -2,140 +2,374 @@ package tcc.order_service.service;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
-import java.util.Collections;
-import java.util.Map;
+import jakarta.persistence.EntityManager;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import tcc.order_service.analytics.ProductPairTopK;
+import tcc.order_service.analytics.ProductSalesStore;
+import tcc.order_service.cache.IdempotencyKeyReusedException;
+import tcc.order_service.cache.OrderIdempotencyStore;
+import tcc.order_service.dto.BulkStatusUpdateResultDTO;
+import tcc.order_service.dto.CursorPageDTO;
+import tcc.order_service.dto.DelayedOrderDTO;
+import tcc.order_service.event.OrderChangedEvent;
+import tcc.order_service.model.ArchivedOrder;
 import tcc.order_service.model.Order;
+import tcc.order_service.model.OrderStatus;
+import tcc.order_service.repository.DelayedOrderRow;
+import tcc.order_service.repository.OrderArchiveRepository;
 import tcc.order_service.repository.OrderRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class OrderService {
 
+  private static final int STREAM_CHUNK_SIZE = 500;
+
   private final OrderRepository orderRepository;
-  private final WebClient.Builder webClientBuilder;
-  private final MeterRegistry meterRegistry;
+  private final OrderArchiveRepository orderArchiveRepository;
+  private final EntityManager entityManager;
+  private final ProductCatalogService productCatalogService;
+  private final ProductPairTopK productPairTopK;
+  private final ProductSalesStore productSalesStore;
+  private final OrderIdempotencyStore orderIdempotencyStore;
+  private final Scheduler jpaScheduler;
+  private final ApplicationEventPublisher eventPublisher;
   private final Counter totalProductsCounter;
-  private final String PRODUCT_SERVICE_URL = "http://172.19.0.3:2020/products/";
+  private final Counter idempotencyReplayCounter;
 
   @Autowired
   public OrderService(
       OrderRepository orderRepository,
-      WebClient.Builder webClientBuilder,
+      OrderArchiveRepository orderArchiveRepository,
+      EntityManager entityManager,
+      ProductCatalogService productCatalogService,
+      ProductPairTopK productPairTopK,
+      ProductSalesStore productSalesStore,
+      OrderIdempotencyStore orderIdempotencyStore,
+      @Qualifier("jpaScheduler") Scheduler jpaScheduler,
+      ApplicationEventPublisher eventPublisher,
       MeterRegistry meterRegistry) {
     this.orderRepository = orderRepository;
-    this.webClientBuilder = webClientBuilder;
-    this.meterRegistry = meterRegistry;
+    this.orderArchiveRepository = orderArchiveRepository;
+    this.entityManager = entityManager;
+    this.productCatalogService = productCatalogService;
+    this.productPairTopK = productPairTopK;
+    this.productSalesStore = productSalesStore;
+    this.orderIdempotencyStore = orderIdempotencyStore;
+    this.jpaScheduler = jpaScheduler;
+    this.eventPublisher = eventPublisher;
     this.totalProductsCounter = meterRegistry.counter("order.products.total"); // Métrica global
+    this.idempotencyReplayCounter = meterRegistry.counter("order.idempotency.replays");
   }
 
+  /**
+   * Pedidos da tabela principal. Pedidos encerrados já arquivados não entram na listagem, mas
+   * continuam acessíveis por id.
+   */
   public List<Order> findAll() {
     return orderRepository.findAll();
   }
 
   public Optional<Order> findById(Long id) {
-    return orderRepository.findById(id);
+    return orderRepository.findById(id)
+        .or(() -> orderArchiveRepository.findById(id).map(ArchivedOrder::toOrder));
   }
 
-  public Order save(Order order) {
-    for(Order.OrderProduct product : order.getProducts()) {
-      if(!checkProductExists(product.getProductCode())) {
-        throw new RuntimeException("Produto não encontrado: " + product.getProductCode());
+  public CursorPageDTO<Order> findPage(long afterId, int size) {
+    List<Order> orders = orderRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size));
+    Long nextCursor = orders.size() < size ? null : orders.get(orders.size() - 1).getId();
+    return new CursorPageDTO<>(orders, nextCursor);
+  }
+
+  /**
+   * Percorre todos os pedidos em ordem de id, entregando-os ao consumidor em blocos de
+   * {@value #STREAM_CHUNK_SIZE}: os ids de cada bloco são lidos por cursor e os pedidos do bloco
+   * vêm com os itens em uma única consulta (duas instruções por bloco, sem N+1). O contexto de
+   * persistência é limpo a cada bloco para que a memória não cresça com o volume.
+   */
+  @Transactional(readOnly = true)
+  public void forEachOrder(Consumer<Order> consumer) {
+    long afterId = 0;
+    List<Long> ids;
+    do {
+      ids = orderRepository.findIdsAfter(afterId, Limit.of(STREAM_CHUNK_SIZE));
+      if (ids.isEmpty()) {
+        return;
       }
-    }
+      orderRepository.findAllWithProductsByIdIn(ids).forEach(consumer);
+      entityManager.clear();
+      afterId = ids.get(ids.size() - 1);
+    } while (ids.size() == STREAM_CHUNK_SIZE);
+  }
 
-    Order savedOrder = orderRepository.save(order);
+  public Order save(Order order) {
+    return saveReactive(order).block();
+  }
 
+  /**
+   * Versão não bloqueante de {@link #save(Order)}: a validação dos produtos é composta sobre
+   * o WebClient e apenas a escrita JPA é executada no scheduler limitado {@code jpaScheduler}.
+   */
+  public Mono<Order> saveReactive(Order order) {
     List<Long> productIds = order.getProducts().stream()
         .map(Order.OrderProduct::getProductCode)
         .distinct()
         .collect(Collectors.toList());
 
-    Map<Long, String> productNames = getProductNames(productIds);
+    // Uma única ida ao product_service valida e descreve todos os itens do pedido
+    return productCatalogService.validateProducts(productIds)
+        .flatMap(validation -> {
+          if (!validation.getMissing().isEmpty()) {
+            return Mono.error(new RuntimeException("Produto não encontrado: "
+                + validation.getMissing().stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(", "))));
+          }
+
+          boolean isNew = order.getId() == null;
+          return Mono.fromCallable(() -> orderRepository.save(order))
+              .subscribeOn(jpaScheduler)
+              .doOnNext(savedOrder -> {
+                recordOrderMetrics(savedOrder, productIds);
+                eventPublisher.publishEvent(isNew
+                    ? OrderChangedEvent.created(savedOrder)
+                    : OrderChangedEvent.updated(savedOrder));
+              });
+        });
+  }
+
+  /**
+   * Criação com chave de idempotência: repetições com a mesma chave devolvem o pedido criado
+   * na primeira tentativa, sem consultar o product_service nem gravar de novo. Fora do cache em
+   * memória (expiração, reinício), a chave é procurada no banco; se duas instâncias gravarem
+   * ao mesmo tempo, a restrição de unicidade rejeita a segunda, que devolve o pedido da primeira.
+   */
+  public Mono<Order> saveReactive(Order order, String idempotencyKey) {
+    String fingerprint = OrderIdempotencyStore.fingerprint(order);
+    return orderIdempotencyStore.execute(idempotencyKey, fingerprint, () ->
+        findByIdempotencyKey(idempotencyKey, fingerprint)
+            .switchIfEmpty(Mono.defer(() -> {
+              order.setId(null);
+              order.setIdempotencyKey(idempotencyKey);
+              order.setIdempotencyFingerprint(fingerprint);
+              return saveReactive(order);
+            }))
+            .onErrorResume(DataIntegrityViolationException.class, e ->
+                findByIdempotencyKey(idempotencyKey, fingerprint).switchIfEmpty(Mono.error(e))));
+  }
 
-    for (int i = 0; i < productIds.size(); i++) {
-      for (int j = i + 1; j < productIds.size(); j++) {
-        Long id1 = productIds.get(i);
-        Long id2 = productIds.get(j);
+  /**
+   * Pedido já criado com a chave, desde que com o mesmo conteúdo; a chave usada com outro
+   * conteúdo falha com {@link IdempotencyKeyReusedException}.
+   */
+  private Mono<Order> findByIdempotencyKey(String idempotencyKey, String fingerprint) {
+    return Mono.fromCallable(() -> orderRepository.findByIdempotencyKey(idempotencyKey))
+        .subscribeOn(jpaScheduler)
+        .flatMap(Mono::justOrEmpty)
+        .flatMap(order -> fingerprint.equals(order.getIdempotencyFingerprint())
+            ? Mono.just(order)
+            : Mono.<Order>error(new IdempotencyKeyReusedException(idempotencyKey)))
+        .doOnNext(order -> idempotencyReplayCounter.increment());
+  }
 
-        String name1 = productNames.getOrDefault(id1, "Produto Desconhecido");
-        String name2 = productNames.getOrDefault(id2, "Produto Desconhecido");
+  /**
+   * Grava um lote de pedidos já validados em uma única transação. As inserções são enviadas
+   * em lotes JDBC e o contexto de persistência é limpo ao final, para que importações longas
+   * não acumulem entidades em memória.
+   */
+  @Transactional
+  public List<Order> saveBatch(List<Order> orders) {
+    List<Order> savedOrders = orderRepository.saveAll(orders);
+    entityManager.flush();
+    entityManager.clear();
 
-        String pairLabel = String.format("%s - %s",
-            name1, name2);
+    for (Order savedOrder : savedOrders) {
+      recordOrderMetrics(savedOrder, savedOrder.getProducts().stream()
+          .map(Order.OrderProduct::getProductCode)
+          .distinct()
+          .collect(Collectors.toList()));
+      eventPublisher.publishEvent(OrderChangedEvent.created(savedOrder));
+    }
+    return savedOrders;
+  }
+
+  /**
+   * Altera apenas o status do pedido, com um único UPDATE condicional: a transição só é
+   * aplicada se o status atual permitir chegar a {@code target}, o que também impede que uma
+   * alteração concorrente seja sobrescrita. Não revalida produtos nem altera métricas.
+   *
+   * @return false se o pedido não existe ou se a transição não é permitida a partir do
+   *     status atual (consulte {@link #findStatus(Long)} para diferenciar)
+   */
+  @Transactional
+  public boolean updateStatus(Long id, OrderStatus target) {
+    Set<OrderStatus> allowedFrom = target.allowedSources();
+    if (allowedFrom.isEmpty()) {
+      return false;
+    }
 
-        // Métrica de combinações de produtos
-        meterRegistry.counter("order.product.combinations",
-            "pair", pairLabel,
-            "product1_id", String.valueOf(id1),
-            "product2_id", String.valueOf(id2)
-        ).increment();
+    boolean updated = orderRepository.updateStatusIfIn(
+        id, target, allowedFrom, LocalDateTime.now()) == 1;
+    if (updated) {
+      eventPublisher.publishEvent(OrderChangedEvent.statusChanged(id, target));
+    }
+    return updated;
+  }
+
+  /**
+   * Aplica {@code target} aos pedidos informados: as linhas são travadas e lidas em uma
+   * consulta, a transição é avaliada por pedido e os aprovados são alterados em um único
+   * UPDATE. Cada pedido alterado gera um evento, para que o índice de atrasados (lido pelo
+   * {@code OrderProcessingTask}) reflita a mudança imediatamente.
+   */
+  @Transactional
+  public BulkStatusUpdateResultDTO updateStatus(List<Long> ids, OrderStatus target) {
+    List<Long> distinctIds = ids.stream().distinct().collect(Collectors.toList());
+    Map<Long, String> currentStatuses = new HashMap<>();
+    for (Order order : orderRepository.findAllByIdForUpdate(distinctIds)) {
+      currentStatuses.put(order.getId(), order.getStatus());
+    }
+    // Pedidos arquivados estão encerrados: aparecem como transição não permitida
+    List<Long> missing = distinctIds.stream()
+        .filter(id -> !currentStatuses.containsKey(id))
+        .collect(Collectors.toList());
+    if (!missing.isEmpty()) {
+      for (OrderArchiveRepository.ArchivedStatusRow row
+          : orderArchiveRepository.findStatusesByIds(missing)) {
+        currentStatuses.put(row.getId(), row.getStatus().name());
       }
     }
 
-    // Métrica de produtos individuais
-    for(Order.OrderProduct product : savedOrder.getProducts()) {
-      totalProductsCounter.increment(product.getQuantity());
+    List<Long> eligible = new ArrayList<>();
+    List<BulkStatusUpdateResultDTO.Item> results = new ArrayList<>(distinctIds.size());
+    for (Long id : distinctIds) {
+      String current = currentStatuses.get(id);
+      BulkStatusUpdateResultDTO.Outcome outcome;
+      if (current == null) {
+        outcome = BulkStatusUpdateResultDTO.Outcome.NOT_FOUND;
+      } else if (OrderStatus.from(current).canTransitionTo(target)) {
+        outcome = BulkStatusUpdateResultDTO.Outcome.UPDATED;
+        eligible.add(id);
+      } else {
+        outcome = BulkStatusUpdateResultDTO.Outcome.TRANSITION_NOT_ALLOWED;
+      }
+      results.add(new BulkStatusUpdateResultDTO.Item(id, outcome, current));
+    }
 
-      String productName = productNames.getOrDefault(product.getProductCode(), "Desconhecido");
+    applyStatus(eligible, target);
+    return new BulkStatusUpdateResultDTO(target.name(), eligible.size(), results);
+  }
 
-      Counter productCounter = meterRegistry.counter("order.products.details",
-          "productId", String.valueOf(product.getProductCode()),
-          "productName", productName,
-          "quantity", String.valueOf(product.getQuantity())
-      );
-      productCounter.increment(product.getQuantity());
+  /**
+   * Aplica {@code target} a todos os pedidos da mesa que estejam em {@code fromStatus} (ou,
+   * se nulo, em qualquer status a partir do qual a transição é permitida).
+   */
+  @Transactional
+  public BulkStatusUpdateResultDTO updateStatusByTable(Integer tableNumber, OrderStatus fromStatus,
+      OrderStatus target) {
+    List<OrderStatus> statuses = (fromStatus != null
+        ? Set.of(fromStatus)
+        : target.allowedSources()).stream()
+        .filter(status -> status.canTransitionTo(target))
+        .collect(Collectors.toList());
+
+    List<Long> eligible = new ArrayList<>();
+    List<BulkStatusUpdateResultDTO.Item> results = new ArrayList<>();
+    if (!statuses.isEmpty()) {
+      for (Order order : orderRepository.findByTableNumberAndStatusForUpdate(tableNumber, statuses)) {
+        eligible.add(order.getId());
+        results.add(new BulkStatusUpdateResultDTO.Item(
+            order.getId(), BulkStatusUpdateResultDTO.Outcome.UPDATED, order.getStatus()));
+      }
     }
 
-    return savedOrder;
+    applyStatus(eligible, target);
+    return new BulkStatusUpdateResultDTO(target.name(), eligible.size(), results);
+  }
+
+  private void applyStatus(List<Long> ids, OrderStatus target) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    orderRepository.updateStatusByIds(ids, target, LocalDateTime.now());
+    ids.forEach(id -> eventPublisher.publishEvent(OrderChangedEvent.statusChanged(id, target)));
+  }
+
+  public Optional<OrderStatus> findStatus(Long id) {
+    return orderRepository.findStatusById(id)
+        .or(() -> orderArchiveRepository.findStatusById(id));
   }
 
   public void deleteById(Long id) {
     orderRepository.deleteById(id);
+    orderArchiveRepository.deleteById(id);
+    eventPublisher.publishEvent(OrderChangedEvent.deleted(id));
   }
 
   public boolean checkProductExists(Long productCode) {
-    WebClient webClient = webClientBuilder.build();
-
-    String url = PRODUCT_SERVICE_URL + "exists/" + productCode;
-
-    try {
-      Boolean exists = webClient.get()
-          .uri(url)
-          .retrieve()
-          .onStatus(httpStatus -> httpStatus.is4xxClientError(),
-              clientResponse -> Mono.error(new RuntimeException("Produto não encontrado")))
-          .bodyToMono(Boolean.class)
-          .block();
-
-      return Boolean.TRUE.equals(exists);
-    } catch (Exception e) {
-      new RuntimeException("Produto não encontrado", e);
-      return false;
-    }
+    return productCatalogService.validateProducts(List.of(productCode))
+        .map(validation -> validation.getMissing().isEmpty())
+        .blockOptional()
+        .orElse(false);
   }
 
   public List<Order> findPendingOrdersOlderThan(LocalDateTime cutoffTime) {
     return orderRepository.findPendingOrdersOlderThan(cutoffTime);
   }
 
-  private Map<Long, String> getProductNames(List<Long> productIds) {
-    WebClient webClient = webClientBuilder.build();
+  /**
+   * Pedidos pendentes criados até {@code cutoffTime}, já no formato da view de atrasados,
+   * lidos em uma única consulta de projeção.
+   */
+  @Transactional(readOnly = true)
+  public List<DelayedOrderDTO> findDelayedOrderViews(LocalDateTime cutoffTime) {
+    Map<Long, List<DelayedOrderRow>> rowsByOrder = new LinkedHashMap<>();
+    for (DelayedOrderRow row : orderRepository.findDelayedOrderRows(cutoffTime)) {
+      rowsByOrder.computeIfAbsent(row.getOrderId(), id -> new ArrayList<>()).add(row);
+    }
 
-    return webClient.post()
-        .uri(PRODUCT_SERVICE_URL + "batch-details")
-        .bodyValue(productIds)
-        .retrieve()
-        .bodyToMono(new ParameterizedTypeReference<Map<Long, String>>() {})
-        .blockOptional()
-        .orElse(Collections.emptyMap());
+    List<DelayedOrderDTO> views = new ArrayList<>(rowsByOrder.size());
+    for (List<DelayedOrderRow> rows : rowsByOrder.values()) {
+      DelayedOrderRow first = rows.get(0);
+      List<String> products = new ArrayList<>(rows.size());
+      for (DelayedOrderRow row : rows) {
+        if (row.getProductCode() != null) {
+          products.add(DelayedOrderDTO.describeProduct(row.getProductCode(), row.getQuantity()));
+        }
+      }
+      views.add(DelayedOrderDTO.of(
+          first.getOrderId(), first.getTableNumber(), first.getCreatedAt(), products));
+    }
+    return views;
+  }
+
+  private void recordOrderMetrics(Order savedOrder, List<Long> productIds) {
+    // Métrica de combinações de produtos (top-N com memória constante)
+    productPairTopK.record(productIds);
+
+    // Totais por produto, pré-agregados (uma série por produto, sem tags por quantidade)
+    productSalesStore.record(savedOrder);
+
+    for(Order.OrderProduct product : savedOrder.getProducts()) {
+      totalProductsCounter.increment(product.getQuantity());
+    }
   }
 }
@@ -0,0 +1,154 @@
+package tcc.order_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import tcc.order_service.cache.ProductBloomFilter;
+import tcc.order_service.cache.ProductCatalogCache;
+import tcc.order_service.configuration.ProductServiceClient;
+import tcc.order_service.dto.ProductValidationDTO;
+
+/**
+ * Ponto único de acesso ao catálogo do product_service: combina o cache local com o
+ * cliente HTTP compartilhado.
+ *
+ * <p>Se o product_service falhar (timeout, bulkhead cheio ou circuito aberto), a validação cai
+ * para o modo degradado: usa o último estado conhecido do catálogo no cache local, para que a
+ * entrada de pedidos não pare durante uma instabilidade do product_service.
+ *
+ * <p>Códigos que o filtro de Bloom do catálogo descarta são dados como inexistentes sem
+ * consulta ao product_service ({@link #findKnownAbsent}).
+ */
+@Service
+public class ProductCatalogService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ProductCatalogService.class);
+
+  private final ProductCatalogCache productCatalogCache;
+  private final ProductServiceClient productServiceClient;
+
+  private final Counter degradedServedCounter;
+  private final Counter degradedUnavailableCounter;
+  private final Counter bloomFilterRejectedCounter;
+
+  public ProductCatalogService(ProductCatalogCache productCatalogCache,
+      ProductServiceClient productServiceClient,
+      MeterRegistry meterRegistry) {
+    this.productCatalogCache = productCatalogCache;
+    this.productServiceClient = productServiceClient;
+
+    this.degradedServedCounter =
+        meterRegistry.counter("product.catalog.degraded", "result", "served");
+    this.degradedUnavailableCounter =
+        meterRegistry.counter("product.catalog.degraded", "result", "unavailable");
+    this.bloomFilterRejectedCounter =
+        meterRegistry.counter("product.catalog.bloom-filter.rejected");
+  }
+
+  public Mono<ProductValidationDTO> validateProducts(List<Long> productIds) {
+    if (productIds.isEmpty()) {
+      return Mono.just(new ProductValidationDTO());
+    }
+    List<Long> knownAbsent = findKnownAbsent(productIds);
+    if (knownAbsent.isEmpty()) {
+      return validateRemotely(productIds);
+    }
+
+    List<Long> remaining = productIds.stream()
+        .filter(productId -> !knownAbsent.contains(productId))
+        .collect(Collectors.toList());
+    if (remaining.isEmpty()) {
+      return Mono.just(new ProductValidationDTO(new HashMap<>(), knownAbsent));
+    }
+    return validateRemotely(remaining).map(validation -> {
+      List<Long> missing = new ArrayList<>(validation.getMissing());
+      missing.addAll(knownAbsent);
+      return new ProductValidationDTO(validation.getProducts(), missing);
+    });
+  }
+
+  /**
+   * Códigos que certamente não existem no catálogo, segundo o filtro de Bloom, resolvidos
+   * localmente em memória.
+   */
+  private List<Long> findKnownAbsent(List<Long> productIds) {
+    List<Long> knownAbsent = new ArrayList<>(0);
+    for (Long productId : productIds) {
+      if (productId != null && productCatalogCache.isKnownAbsent(productId)
+          && !knownAbsent.contains(productId)) {
+        knownAbsent.add(productId);
+      }
+    }
+    bloomFilterRejectedCounter.increment(knownAbsent.size());
+    return knownAbsent;
+  }
+
+  private Mono<ProductValidationDTO> validateRemotely(List<Long> productIds) {
+    return productCatalogCache.lookup(productIds, productServiceClient::validateProducts)
+        .onErrorResume(e -> validateWithLastKnown(productIds, e));
+  }
+
+  private Mono<ProductValidationDTO> validateWithLastKnown(List<Long> productIds, Throwable error) {
+    return productCatalogCache.lastKnown(productIds)
+        .map(validation -> {
+          degradedServedCounter.increment();
+          logger.debug("Validated products {} against last known catalog: {}",
+              productIds, error.getMessage());
+          return Mono.just(validation);
+        })
+        .orElseGet(() -> {
+          degradedUnavailableCounter.increment();
+          return Mono.error(new ProductCatalogUnavailableException(productIds, error));
+        });
+  }
+
+  /**
+   * Resolve os nomes de exibição dos produtos (bloqueante). Em caso de falha no
+   * product_service devolve um mapa vazio, deixando a decisão do rótulo a quem chamou.
+   */
+  public Map<Long, String> resolveNames(Collection<Long> productIds) {
+    List<Long> distinctIds = productIds.stream().distinct().collect(Collectors.toList());
+    try {
+      return validateProducts(distinctIds)
+          .map(ProductValidationDTO::getProducts)
+          .blockOptional()
+          .orElse(Map.of());
+    } catch (RuntimeException e) {
+      logger.warn("Could not resolve product names: {}", e.getMessage());
+      return Map.of();
+    }
+  }
+
+  /**
+   * Consulta o product_service pela versão atual do catálogo, invalidando o cache local
+   * de produtos quando o catálogo foi alterado.
+   */
+  public void refreshCatalogVersion() {
+    productServiceClient.getCatalogVersion()
+        .blockOptional()
+        .ifPresent(productCatalogCache::onCatalogVersion);
+  }
+
+  /**
+   * Baixa o filtro de Bloom do catálogo se ele mudou desde o último recebido. A versão do
+   * filtro novo também atualiza a versão do catálogo conhecida pelo cache.
+   */
+  public void refreshBloomFilter() {
+    productServiceClient.getBloomFilter(productCatalogCache.getBloomFilterVersion())
+        .map(ProductBloomFilter::fromBytes)
+        .blockOptional()
+        .ifPresent(filter -> {
+          productCatalogCache.onCatalogVersion(filter.getVersion());
+          productCatalogCache.onBloomFilter(filter);
+        });
+  }
+}
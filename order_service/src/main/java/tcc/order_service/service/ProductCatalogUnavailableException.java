@@ -0,0 +1,16 @@
+package tcc.order_service.service;
+
+import java.util.List;
+
+/**
+ * O product_service não respondeu e o último catálogo conhecido não cobre todos os produtos
+ * informados, de modo que o pedido não pode ser validado.
+ */
+public class ProductCatalogUnavailableException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public ProductCatalogUnavailableException(List<Long> productIds, Throwable cause) {
+    super("Catálogo de produtos indisponível para validar os produtos " + productIds, cause);
+  }
+}
@@ -0,0 +1,59 @@
+package tcc.order_service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import tcc.order_service.model.Order;
+
+/**
+ * A chave de idempotência devolve o pedido original apenas para a mesma requisição.
+ */
+class OrderIdempotencyStoreTests {
+
+  private final OrderIdempotencyStore store =
+      new OrderIdempotencyStore(new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+  private final AtomicInteger creations = new AtomicInteger();
+
+  @Test
+  void replaysOrderForSameContent() {
+    Order first = store.execute("key-1", OrderIdempotencyStore.fingerprint(order(1, 2)),
+        this::create).block();
+    Order replay = store.execute("key-1", OrderIdempotencyStore.fingerprint(order(1, 2)),
+        this::create).block();
+
+    assertThat(replay.getId()).isEqualTo(first.getId());
+    assertThat(creations).hasValue(1);
+  }
+
+  @Test
+  void rejectsSameKeyWithDifferentContent() {
+    store.execute("key-1", OrderIdempotencyStore.fingerprint(order(1, 2)), this::create).block();
+
+    assertThatThrownBy(() -> store.execute("key-1",
+        OrderIdempotencyStore.fingerprint(order(1, 3)), this::create).block())
+        .isInstanceOf(IdempotencyKeyReusedException.class);
+    assertThatThrownBy(() -> store.execute("key-1",
+        OrderIdempotencyStore.fingerprint(order(2, 2)), this::create).block())
+        .isInstanceOf(IdempotencyKeyReusedException.class);
+    assertThat(creations).hasValue(1);
+  }
+
+  private Mono<Order> create() {
+    Order order = order(1, 2);
+    order.setId((long) creations.incrementAndGet());
+    return Mono.just(order);
+  }
+
+  private static Order order(int tableNumber, int quantity) {
+    Order order = new Order();
+    order.setTableNumber(tableNumber);
+    order.setStatus("pending");
+    order.getProducts().add(new Order.OrderProduct(1L, quantity));
+    return order;
+  }
+}
@@ -0,0 +1,76 @@
+package tcc.order_service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HexFormat;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Lê o filtro serializado pelo product_service. Os bytes são os mesmos fixados no teste do
+ * product_service ({@code tcc.product_service.catalog.ProductBloomFilterTests}), o que garante
+ * que os dois serviços usam o mesmo formato e o mesmo cálculo de hash.
+ */
+class ProductBloomFilterTests {
+
+  // Catálogo com os ids 1..20 na versão 7, taxa de falsos positivos de 1%: k = 7, 3 palavras
+  private static final byte[] CATALOG_1_TO_20_V7 = HexFormat.of().parseHex(
+      "0000000000000007" + "00000007" + "00000003"
+      + "5528fcdc1ec4f1d2" + "742f526a224f35b0" + "5bf06856bbf9429c");
+
+  @Test
+  void readsHeaderAndContainsCatalogIds() {
+    ProductBloomFilter filter = ProductBloomFilter.fromBytes(CATALOG_1_TO_20_V7);
+
+    assertThat(filter.getVersion()).isEqualTo(7);
+    assertThat(filter.getBitCount()).isEqualTo(3 * Long.SIZE);
+    for (long id = 1; id <= 20; id++) {
+      assertThat(filter.mightContain(id)).as("id %d", id).isTrue();
+    }
+  }
+
+  @Test
+  void rejectsIdsOutsideCatalog() {
+    ProductBloomFilter filter = ProductBloomFilter.fromBytes(CATALOG_1_TO_20_V7);
+
+    // 23 é um falso positivo deste filtro; os demais são descartados
+    for (long id : new long[] {0, 21, 22, 24, 40, -1, Long.MAX_VALUE}) {
+      assertThat(filter.mightContain(id)).as("id %d", id).isFalse();
+    }
+  }
+
+  @Test
+  void rejectsTruncatedBytes() {
+    byte[] headerOnly = Arrays.copyOf(CATALOG_1_TO_20_V7, 10);
+    byte[] missingWord = Arrays.copyOf(CATALOG_1_TO_20_V7, CATALOG_1_TO_20_V7.length - Long.BYTES);
+
+    assertThatThrownBy(() -> ProductBloomFilter.fromBytes(headerOnly))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> ProductBloomFilter.fromBytes(missingWord))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void rejectsHeaderNotMatchingContent() {
+    byte[] extraByte = Arrays.copyOf(CATALOG_1_TO_20_V7, CATALOG_1_TO_20_V7.length + 1);
+    byte[] moreWordsThanSent = withHeader(4, 7);
+    byte[] noHashFunctions = withHeader(3, 0);
+
+    assertThatThrownBy(() -> ProductBloomFilter.fromBytes(extraByte))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> ProductBloomFilter.fromBytes(moreWordsThanSent))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> ProductBloomFilter.fromBytes(noHashFunctions))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static byte[] withHeader(int words, int hashFunctions) {
+    byte[] bytes = CATALOG_1_TO_20_V7.clone();
+    ByteBuffer.wrap(bytes)
+        .putInt(Long.BYTES, hashFunctions)
+        .putInt(Long.BYTES + Integer.BYTES, words);
+    return bytes;
+  }
+}
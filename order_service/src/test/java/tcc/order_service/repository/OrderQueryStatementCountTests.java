@@ -0,0 +1,135 @@
+package tcc.order_service.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import tcc.order_service.dto.DelayedOrderDTO;
+import tcc.order_service.model.Order;
+import tcc.order_service.service.OrderService;
+
+/**
+ * Garante que os caminhos de leitura de pedidos executam um número de instruções SQL que não
+ * cresce com a quantidade de pedidos (sem N+1 na coleção de itens).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderQueryStatementCountTests {
+
+  private static final int PRODUCTS_PER_ORDER = 3;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private OrderService orderService;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    orderRepository.deleteAll();
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {5, 60})
+  void findAllLoadsItemsInOneStatement(int orders) {
+    createPendingOrders(orders);
+
+    long statements = countStatements(() -> touchProducts(orderService.findAll()));
+
+    assertThat(statements).isEqualTo(1);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {5, 60})
+  void findPendingOrdersOlderThanLoadsItemsInOneStatement(int orders) {
+    createPendingOrders(orders);
+
+    long statements = countStatements(() ->
+        touchProducts(orderService.findPendingOrdersOlderThan(LocalDateTime.now().plusMinutes(1))));
+
+    assertThat(statements).isEqualTo(1);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {5, 60})
+  void delayedViewProjectionUsesOneStatement(int orders) {
+    createPendingOrders(orders);
+
+    List<DelayedOrderDTO> views = new ArrayList<>();
+    long statements = countStatements(() ->
+        views.addAll(orderService.findDelayedOrderViews(LocalDateTime.now().plusMinutes(1))));
+
+    assertThat(statements).isEqualTo(1);
+    assertThat(views).hasSize(orders);
+    assertThat(views).allSatisfy(view -> assertThat(view.getProducts()).hasSize(PRODUCTS_PER_ORDER));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {5, 60})
+  void pageLoadsItemsInBatches(int orders) {
+    createPendingOrders(orders);
+
+    // Página + um lote de itens (@BatchSize), dentro de uma transação como no open-in-view
+    long statements = countStatements(() -> transactionTemplate.executeWithoutResult(status ->
+        touchProducts(orderService.findPage(0, 100).getItems())));
+
+    assertThat(statements).isEqualTo(2);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {5, 60})
+  void streamLoadsItemsPerChunk(int orders) {
+    createPendingOrders(orders);
+
+    // Ids do bloco por cursor + pedidos do bloco com os itens
+    List<Order> streamed = new ArrayList<>();
+    long statements = countStatements(() -> orderService.forEachOrder(streamed::add));
+
+    assertThat(statements).isEqualTo(2);
+    assertThat(streamed).hasSize(orders);
+    assertThat(streamed).allSatisfy(order ->
+        assertThat(order.getProducts()).hasSize(PRODUCTS_PER_ORDER));
+  }
+
+  private void createPendingOrders(int count) {
+    List<Order> orders = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Order order = new Order();
+      order.setTableNumber(i % 10 + 1);
+      order.setStatus("pending");
+      for (long code = 1; code <= PRODUCTS_PER_ORDER; code++) {
+        order.getProducts().add(new Order.OrderProduct(code, 1));
+      }
+      orders.add(order);
+    }
+    orderRepository.saveAll(orders);
+  }
+
+  private long countStatements(Runnable action) {
+    statistics.clear();
+    action.run();
+    return statistics.getPrepareStatementCount();
+  }
+
+  private static void touchProducts(List<Order> orders) {
+    orders.forEach(order -> order.getProducts().size());
+  }
+}
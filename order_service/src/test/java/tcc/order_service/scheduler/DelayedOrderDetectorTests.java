@@ -0,0 +1,110 @@
+package tcc.order_service.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BaseSubscriber;
+import tcc.order_service.event.OrderChangedEvent;
+import tcc.order_service.model.Order;
+import tcc.order_service.model.OrderStatus;
+import tcc.order_service.repository.OrderRepository;
+
+/**
+ * Entrega das alterações do conjunto de atrasados aos assinantes: snapshot antes das
+ * alterações e fila por assinante, sem descartes silenciosos.
+ */
+class DelayedOrderDetectorTests {
+
+  private static final int BUFFER_SIZE = 8;
+
+  private final DelayedOrderDetector detector =
+      new DelayedOrderDetector(mock(OrderRepository.class), Duration.ofMinutes(3), BUFFER_SIZE);
+
+  @Test
+  void deliversSnapshotBeforeLaterChanges() {
+    detector.onOrderChanged(OrderChangedEvent.created(delayedOrder(1L)));
+    Recorder recorder = new Recorder(Long.MAX_VALUE);
+    detector.subscribe().subscribe(recorder);
+
+    detector.onOrderChanged(OrderChangedEvent.statusChanged(1L, OrderStatus.FINISHED));
+
+    assertThat(recorder.changes).containsExactly("ADDED 1", "REMOVED 1");
+  }
+
+  @Test
+  void buffersChangesForSubscriberWithoutDemand() {
+    Recorder recorder = new Recorder(0);
+    detector.subscribe().subscribe(recorder);
+
+    // Entradas e saídas em rajada, preenchendo exatamente a fila do assinante
+    int orders = BUFFER_SIZE / 2;
+    for (long id = 1; id <= orders; id++) {
+      detector.onOrderChanged(OrderChangedEvent.created(delayedOrder(id)));
+    }
+    for (long id = 1; id <= orders; id++) {
+      detector.onOrderChanged(OrderChangedEvent.statusChanged(id, OrderStatus.FINISHED));
+    }
+    recorder.request(Long.MAX_VALUE);
+
+    assertThat(recorder.changes).hasSize(BUFFER_SIZE);
+    assertThat(recorder.changes.get(BUFFER_SIZE - 1)).isEqualTo("REMOVED " + orders);
+    assertThat(recorder.error).isNull();
+  }
+
+  @Test
+  void signalsOverflowWhenSubscriberBufferIsFull() {
+    Recorder recorder = new Recorder(0);
+    detector.subscribe().subscribe(recorder);
+
+    for (long id = 1; id <= 4L * BUFFER_SIZE; id++) {
+      detector.onOrderChanged(OrderChangedEvent.created(delayedOrder(id)));
+    }
+    recorder.request(Long.MAX_VALUE);
+
+    assertThat(recorder.error).matches(Exceptions::isOverflow);
+    assertThat(recorder.changes).hasSizeLessThan(4 * BUFFER_SIZE);
+  }
+
+  private static Order delayedOrder(long id) {
+    Order order = new Order();
+    order.setId(id);
+    order.setTableNumber(1);
+    order.setStatus("pending");
+    order.setCreatedAt(LocalDateTime.now().minusMinutes(10));
+    return order;
+  }
+
+  private static final class Recorder extends BaseSubscriber<DelayedOrderDetector.Change> {
+    private final long initialRequest;
+    private final List<String> changes = new ArrayList<>();
+    private Throwable error;
+
+    private Recorder(long initialRequest) {
+      this.initialRequest = initialRequest;
+    }
+
+    @Override
+    protected void hookOnSubscribe(Subscription subscription) {
+      if (initialRequest > 0) {
+        request(initialRequest);
+      }
+    }
+
+    @Override
+    protected void hookOnNext(DelayedOrderDetector.Change change) {
+      changes.add(change.getType() + " " + change.getOrderId());
+    }
+
+    @Override
+    protected void hookOnError(Throwable throwable) {
+      error = throwable;
+    }
+  }
+}
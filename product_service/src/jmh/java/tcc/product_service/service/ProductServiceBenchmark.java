@@ -0,0 +1,72 @@
+package tcc.product_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+import tcc.product_service.catalog.ProductCatalog;
+import tcc.product_service.dto.ProductValidationDTO;
+import tcc.product_service.model.Product;
+
+/**
+ * Nomes em lote ({@link ProductService#getProductNamesBatch(List)}) e validação em lote
+ * ({@link ProductService#validateBatch(List)}), chamada a cada pedido, lidos do catálogo em
+ * memória com {@code catalogSize} produtos. Metade dos códigos consultados não existe.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductServiceBenchmark {
+
+  @Param({"5", "50", "500"})
+  private int batchSize;
+
+  @Param({"10000"})
+  private int catalogSize;
+
+  private ProductService productService;
+  private List<Long> productIds;
+
+  @Setup
+  public void setUp() {
+    List<Product> products = new ArrayList<>(catalogSize);
+    for (long id = 1; id <= catalogSize; id++) {
+      Product product = new Product();
+      product.setId(id);
+      product.setName("Produto " + id);
+      product.setPrice(10.0);
+      products.add(product);
+    }
+    ProductCatalog productCatalog = new ProductCatalog(new SimpleMeterRegistry());
+    productCatalog.putAll(products);
+
+    productIds = new ArrayList<>(batchSize);
+    for (int i = 0; i < batchSize; i++) {
+      long id = (i * 7919L) % catalogSize + 1;
+      productIds.add(i % 2 == 0 ? id : catalogSize + id);
+    }
+
+    productService = new ProductService(new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(productService, "productCatalog", productCatalog);
+  }
+
+  @Benchmark
+  public Map<Long, String> getProductNamesBatch() {
+    return productService.getProductNamesBatch(productIds);
+  }
+
+  @Benchmark
+  public ProductValidationDTO validateBatch() {
+    return productService.validateBatch(productIds);
+  }
+}
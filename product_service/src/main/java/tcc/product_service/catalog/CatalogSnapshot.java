@@ -0,0 +1,107 @@
+package tcc.product_service.catalog;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * Cópia imutável do catálogo: id do produto -> nome de exibição já formatado, em uma tabela
+ * de endereçamento aberto indexada pelo id primitivo. Nunca é alterada depois de publicada;
+ * cada alteração no catálogo gera uma nova cópia ({@link #with}), de modo que as leituras não
+ * precisam de locks nem veem um estado parcial.
+ */
+public final class CatalogSnapshot {
+
+  private final long version;
+  private final long[] keys;
+  // Nome de exibição de cada posição; null marca posição vazia
+  private final String[] names;
+  private final int mask;
+  private int size;
+
+  private CatalogSnapshot(long version, int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+    this.version = version;
+    this.keys = new long[capacity];
+    this.names = new String[capacity];
+    this.mask = capacity - 1;
+  }
+
+  public static CatalogSnapshot empty(long version) {
+    return new CatalogSnapshot(version, 0);
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean contains(long productId) {
+    return nameOf(productId) != null;
+  }
+
+  /**
+   * Nome de exibição do produto, ou null se ele não existe no catálogo.
+   */
+  public String nameOf(long productId) {
+    int index = (int) mix(productId) & mask;
+    String name;
+    while ((name = names[index]) != null) {
+      if (keys[index] == productId) {
+        return name;
+      }
+      index = (index + 1) & mask;
+    }
+    return null;
+  }
+
+  public void forEachId(LongConsumer consumer) {
+    for (int i = 0; i < names.length; i++) {
+      if (names[i] != null) {
+        consumer.accept(keys[i]);
+      }
+    }
+  }
+
+  /**
+   * Nova cópia com os produtos de {@code upserts} incluídos ou renomeados e os de
+   * {@code removals} excluídos.
+   */
+  public CatalogSnapshot with(Map<Long, String> upserts, Set<Long> removals, long newVersion) {
+    CatalogSnapshot next = new CatalogSnapshot(newVersion, size + upserts.size());
+    for (int i = 0; i < names.length; i++) {
+      if (names[i] != null && !upserts.containsKey(keys[i]) && !removals.contains(keys[i])) {
+        next.insert(keys[i], names[i]);
+      }
+    }
+    upserts.forEach((productId, name) -> {
+      if (!removals.contains(productId)) {
+        next.insert(productId, name);
+      }
+    });
+    return next;
+  }
+
+  // Usado apenas durante a construção, antes de a cópia ser publicada
+  private void insert(long productId, String name) {
+    int index = (int) mix(productId) & mask;
+    while (names[index] != null) {
+      if (keys[index] == productId) {
+        names[index] = name;
+        return;
+      }
+      index = (index + 1) & mask;
+    }
+    keys[index] = productId;
+    names[index] = name;
+    size++;
+  }
+
+  private static long mix(long value) {
+    value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+    return value ^ (value >>> 33);
+  }
+}
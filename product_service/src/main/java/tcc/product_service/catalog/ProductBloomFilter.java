@@ -0,0 +1,77 @@
+package tcc.product_service.catalog;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Filtro de Bloom dos ids de uma {@link CatalogSnapshot}, publicado para que os consumidores
+ * rejeitem localmente códigos que certamente não existem. Já é guardado serializado, no
+ * formato baixado pelo order_service (big-endian):
+ *
+ * <pre>
+ * long   versão do catálogo
+ * int    número de funções de hash (k)
+ * int    número de palavras de 64 bits (m = palavras * 64 bits)
+ * long[] palavras do vetor de bits
+ * </pre>
+ *
+ * <p>O bit {@code i} (0 &lt;= i &lt; k) de um id é {@code (h1 + i * h2) mod m}, sem sinal, com
+ * {@code h1 = mix(id)} e {@code h2 = mix(h1)}, onde {@code mix} é o finalizador de 64 bits
+ * do MurmurHash3. O order_service precisa usar exatamente o mesmo cálculo.
+ */
+public final class ProductBloomFilter {
+
+  private static final int HEADER_BYTES = Long.BYTES + 2 * Integer.BYTES;
+  private static final int MAX_HASH_FUNCTIONS = 16;
+
+  private final long version;
+  private final byte[] bytes;
+
+  private ProductBloomFilter(long version, byte[] bytes) {
+    this.version = version;
+    this.bytes = bytes;
+  }
+
+  /**
+   * Dimensiona o filtro para o tamanho do catálogo e a taxa de falsos positivos desejada.
+   */
+  public static ProductBloomFilter of(CatalogSnapshot catalog, double falsePositiveRate) {
+    int expected = Math.max(1, catalog.size());
+    double bits = -expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+    int words = (int) Math.max(1, Math.ceil(bits / Long.SIZE));
+    long bitCount = (long) words * Long.SIZE;
+    int hashFunctions = (int) Math.max(1,
+        Math.min(MAX_HASH_FUNCTIONS, Math.round((double) bitCount / expected * Math.log(2))));
+
+    long[] vector = new long[words];
+    catalog.forEachId(productId -> {
+      long h1 = mix(productId);
+      long h2 = mix(h1);
+      for (int i = 0; i < hashFunctions; i++) {
+        long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+        vector[(int) (bit >>> 6)] |= 1L << bit;
+      }
+    });
+
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + words * Long.BYTES);
+    buffer.putLong(catalog.getVersion()).putInt(hashFunctions).putInt(words);
+    buffer.asLongBuffer().put(vector);
+    return new ProductBloomFilter(catalog.getVersion(), buffer.array());
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Filtro serializado; compartilhado entre as respostas, não deve ser alterado.
+   */
+  public byte[] getBytes() {
+    return bytes;
+  }
+
+  private static long mix(long value) {
+    value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+    value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+    return value ^ (value >>> 33);
+  }
+}
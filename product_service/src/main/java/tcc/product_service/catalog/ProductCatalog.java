@@ -0,0 +1,69 @@
+package tcc.product_service.catalog;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.stereotype.Component;
+import tcc.product_service.model.Product;
+
+/**
+ * Catálogo em memória servido pelas consultas de existência e de nomes em lote, que
+ * respondem sem acessar o banco. Guarda a {@link CatalogSnapshot} atual e a substitui
+ * atomicamente (copy-on-write) a cada criação, alteração ou exclusão de produto; a versão do
+ * catálogo informada aos consumidores é a da própria cópia, então a versão e os nomes lidos
+ * juntos são sempre consistentes.
+ */
+@Component
+public class ProductCatalog {
+
+  private final AtomicReference<CatalogSnapshot> snapshot =
+      new AtomicReference<>(CatalogSnapshot.empty(System.currentTimeMillis()));
+
+  public ProductCatalog(MeterRegistry meterRegistry) {
+    Gauge.builder("product.catalog.snapshot.size", this, catalog -> catalog.current().size())
+        .description("Produtos na cópia em memória do catálogo")
+        .register(meterRegistry);
+  }
+
+  public CatalogSnapshot current() {
+    return snapshot.get();
+  }
+
+  public void put(Product product) {
+    putAll(List.of(product));
+  }
+
+  public void putAll(Collection<Product> products) {
+    Map<Long, String> upserts = new HashMap<>();
+    products.forEach(product -> upserts.put(product.getId(), displayName(product)));
+    apply(upserts, Set.of());
+  }
+
+  public void remove(long productId) {
+    apply(Map.of(), Set.of(productId));
+  }
+
+  /**
+   * Substitui todo o conteúdo pelos nomes de exibição informados (id -> nome), lidos do
+   * banco na inicialização. Descarta as alterações feitas desde a leitura, por isso só é
+   * chamado antes de o servidor web aceitar requisições.
+   */
+  public void replaceAll(Map<Long, String> displayNames) {
+    snapshot.updateAndGet(current -> CatalogSnapshot.empty(current.getVersion())
+        .with(displayNames, Set.of(), current.getVersion() + 1));
+  }
+
+  private void apply(Map<Long, String> upserts, Set<Long> removals) {
+    // Escritores concorrentes refazem a cópia sobre a versão mais recente
+    snapshot.updateAndGet(current -> current.with(upserts, removals, current.getVersion() + 1));
+  }
+
+  public static String displayName(Product product) {
+    return product.getName() + " (" + product.getId() + ")";
+  }
+}
@@ -1,13 +1,31 @@
 package tcc.product_service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tcc.product_service.catalog.ProductBloomFilter;
+import tcc.product_service.dto.CursorPageDTO;
+import tcc.product_service.dto.ProductImportResultDTO;
+import tcc.product_service.dto.ProductValidationDTO;
 import tcc.product_service.model.Product;
+import tcc.product_service.service.ProductImportService;
 import tcc.product_service.service.ProductService;
 
 import org.slf4j.Logger;
@@ -24,9 +42,16 @@ public class ProductController {
   @Autowired
   private ProductService productService;
 
+  @Autowired
+  private ProductImportService productImportService;
+
   private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
 
   private final MeterRegistry meterRegistry;
+  private final ObjectMapper objectMapper;
+
+  @Value("${products.page.max-size:500}")
+  private int maxPageSize;
 
   private final Counter getAllProductsCounter;
   private final Timer getAllProductsTimer;
@@ -40,8 +65,9 @@ public class ProductController {
   private final Timer deleteProductTimer;
 
   @Autowired
-  public ProductController(MeterRegistry meterRegistry) {
+  public ProductController(MeterRegistry meterRegistry, ObjectMapper objectMapper) {
     this.meterRegistry = meterRegistry;
+    this.objectMapper = objectMapper;
 
     // Contadores e temporizadores para cada endpoint
     this.getAllProductsCounter = meterRegistry.counter("endpoint.getAllProducts.count");
@@ -75,6 +101,29 @@ public class ProductController {
     return products;
   }
 
+  @GetMapping("/page")
+  public CursorPageDTO<Product> getProductsPage(
+      @RequestParam(defaultValue = "0") long after,
+      @RequestParam(defaultValue = "50") int size) {
+    int pageSize = Math.max(1, Math.min(size, maxPageSize));
+    logger.info("Received request for products page after id {} (size {}).", after, pageSize);
+
+    return productService.findPage(after, pageSize);
+  }
+
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamProducts() {
+    logger.info("Received request to stream all products as NDJSON.");
+
+    // Cada produto é escrito na resposta assim que é lido do banco
+    StreamingResponseBody body = outputStream ->
+        productService.forEachProduct(product -> writeNdjsonLine(outputStream, product));
+
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(body);
+  }
+
   @GetMapping("/{id}")
   public ResponseEntity<Product> getProductById(@PathVariable Long id) {
     getProductByIdCounter.increment();
@@ -110,6 +159,29 @@ public class ProductController {
   }
 
 
+  @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+  public ResponseEntity<ProductImportResultDTO> importProducts(
+      @RequestHeader("Content-Type") String contentType,
+      HttpServletRequest request) throws IOException {
+    ProductImportService.Format format = contentType.startsWith("text/csv")
+        ? ProductImportService.Format.CSV
+        : ProductImportService.Format.NDJSON;
+    logger.info("Received request to import products ({}).", format);
+
+    Charset charset = request.getCharacterEncoding() != null
+        ? Charset.forName(request.getCharacterEncoding())
+        : StandardCharsets.UTF_8;
+
+    // O corpo é lido em fluxo, sem carregar o arquivo inteiro em memória
+    ProductImportResultDTO result = productImportService.importProducts(
+        new InputStreamReader(request.getInputStream(), charset), format);
+
+    logger.info("Imported {} products ({} created, {} updated, {} failed) in {} ms ({} rows/s).",
+        result.getRowsRead(), result.getCreated(), result.getUpdated(), result.getFailed(),
+        result.getElapsedMillis(), String.format("%.1f", result.getRowsPerSecond()));
+    return ResponseEntity.ok(result);
+  }
+
   @PutMapping("/{id}")
   public ResponseEntity<Product> updateProduct(@PathVariable Long id, @RequestBody Product productDetails) {
     updateProductCounter.increment();
@@ -165,8 +237,7 @@ public class ProductController {
   public ResponseEntity<Boolean> checkIfProductExists(@PathVariable Long productCode) {
     logger.info("Checking existence of product with code: {}", productCode);
 
-    Optional<Product> product = productService.findById(productCode);
-    boolean exists = product.isPresent();
+    boolean exists = productService.exists(productCode);
 
     logger.info("Product with code {} exists: {}", productCode, exists);
     return ResponseEntity.ok(exists);
@@ -177,9 +248,53 @@ public class ProductController {
     return productService.getProductNamesBatch(productIds);
   }
 
+  @PostMapping("/batch-validate")
+  public ProductValidationDTO validateProductBatch(@RequestBody List<Long> productIds) {
+    logger.info("Validating batch of {} product codes.", productIds.size());
+
+    ProductValidationDTO validation = productService.validateBatch(productIds);
+
+    logger.info("Batch validation found {} products, {} missing.",
+        validation.getProducts().size(), validation.getMissing().size());
+    return validation;
+  }
+
+  @GetMapping("/catalog-version")
+  public ResponseEntity<Long> getCatalogVersion() {
+    return ResponseEntity.ok(productService.getCatalogVersion());
+  }
+
+  /**
+   * Filtro de Bloom dos ids do catálogo, em binário (formato em {@link ProductBloomFilter}),
+   * para que os consumidores rejeitem localmente códigos inexistentes. O ETag é a versão do
+   * catálogo: com {@code If-None-Match} igual à versão atual, responde 304 sem corpo.
+   */
+  @GetMapping(value = "/bloom-filter", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+  public ResponseEntity<byte[]> getBloomFilter(
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    ProductBloomFilter filter = productService.getBloomFilter();
+    String eTag = "\"" + filter.getVersion() + "\"";
+    if (eTag.equals(ifNoneMatch)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+
+    logger.info("Serving product bloom filter for catalog version {} ({} bytes).",
+        filter.getVersion(), filter.getBytes().length);
+    return ResponseEntity.ok().eTag(eTag).body(filter.getBytes());
+  }
+
   @GetMapping("/reload-test")
   public ResponseEntity<String> checkReloadTest() {
 
     return ResponseEntity.ok("Reload Ok");
   }
+
+  private void writeNdjsonLine(OutputStream outputStream, Product product) {
+    try {
+      outputStream.write(objectMapper.writeValueAsBytes(product));
+      outputStream.write('\n');
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
 }
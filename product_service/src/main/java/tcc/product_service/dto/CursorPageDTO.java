@@ -0,0 +1,22 @@
+package tcc.product_service.dto;
+
+import java.util.List;
+
+public class CursorPageDTO<T> {
+  private final List<T> items;
+  // Último id da página; null quando não há mais registros
+  private final Long nextCursor;
+
+  public CursorPageDTO(List<T> items, Long nextCursor) {
+    this.items = items;
+    this.nextCursor = nextCursor;
+  }
+
+  public List<T> getItems() {
+    return items;
+  }
+
+  public Long getNextCursor() {
+    return nextCursor;
+  }
+}
@@ -0,0 +1,70 @@
+package tcc.product_service.dto;
+
+import java.util.List;
+
+public class ProductImportResultDTO {
+  private final long rowsRead;
+  private final long created;
+  private final long updated;
+  private final long failed;
+  private final long elapsedMillis;
+  private final double rowsPerSecond;
+  private final List<RowError> errors;
+
+  public ProductImportResultDTO(long rowsRead, long created, long updated, long failed,
+      long elapsedMillis, List<RowError> errors) {
+    this.rowsRead = rowsRead;
+    this.created = created;
+    this.updated = updated;
+    this.failed = failed;
+    this.elapsedMillis = elapsedMillis;
+    this.rowsPerSecond = elapsedMillis > 0 ? rowsRead * 1000.0 / elapsedMillis : rowsRead;
+    this.errors = errors;
+  }
+
+  public long getRowsRead() {
+    return rowsRead;
+  }
+
+  public long getCreated() {
+    return created;
+  }
+
+  public long getUpdated() {
+    return updated;
+  }
+
+  public long getFailed() {
+    return failed;
+  }
+
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  public double getRowsPerSecond() {
+    return rowsPerSecond;
+  }
+
+  public List<RowError> getErrors() {
+    return errors;
+  }
+
+  public static class RowError {
+    private final long line;
+    private final String message;
+
+    public RowError(long line, String message) {
+      this.line = line;
+      this.message = message;
+    }
+
+    public long getLine() {
+      return line;
+    }
+
+    public String getMessage() {
+      return message;
+    }
+  }
+}
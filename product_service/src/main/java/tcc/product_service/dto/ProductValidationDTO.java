@@ -0,0 +1,28 @@
+package tcc.product_service.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class ProductValidationDTO {
+  private final Map<Long, String> products;
+  private final List<Long> missing;
+  private final long catalogVersion;
+
+  public ProductValidationDTO(Map<Long, String> products, List<Long> missing, long catalogVersion) {
+    this.products = products;
+    this.missing = missing;
+    this.catalogVersion = catalogVersion;
+  }
+
+  public Map<Long, String> getProducts() {
+    return products;
+  }
+
+  public List<Long> getMissing() {
+    return missing;
+  }
+
+  public long getCatalogVersion() {
+    return catalogVersion;
+  }
+}
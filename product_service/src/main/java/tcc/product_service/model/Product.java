@@ -4,13 +4,18 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "product")
+// Índice por nome: a importação do catálogo localiza os produtos existentes pelo nome
+@Table(name = "product", indexes = @Index(name = "idx_product_name", columnList = "name"))
 public class Product {
+  // Sequência com alocação em blocos, permitindo inserções em lotes JDBC
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+  @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
   private Long id;
   private String name;
   private String description;
@@ -1,7 +1,25 @@
 package tcc.product_service.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import tcc.product_service.model.Product;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
-}
\ No newline at end of file
+
+  // Paginação por cursor (keyset) sobre o id
+  List<Product> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+  List<Product> findByNameIn(Collection<String> names);
+
+  @Query("SELECT p FROM Product p ORDER BY p.id")
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+  Stream<Product> streamAll();
+}
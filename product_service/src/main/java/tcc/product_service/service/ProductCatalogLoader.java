@@ -0,0 +1,32 @@
+package tcc.product_service.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import tcc.product_service.catalog.ProductCatalog;
+
+/**
+ * Carrega o catálogo em memória a partir do banco depois de criados os beans e antes de o
+ * servidor web começar a aceitar requisições. Assim nenhuma gravação concorrente é perdida
+ * pela substituição completa do catálogo e as consultas nunca veem o catálogo vazio.
+ */
+@Component
+public class ProductCatalogLoader implements SmartInitializingSingleton {
+
+  private static final Logger logger = LoggerFactory.getLogger(ProductCatalogLoader.class);
+
+  private final ProductService productService;
+  private final ProductCatalog productCatalog;
+
+  public ProductCatalogLoader(ProductService productService, ProductCatalog productCatalog) {
+    this.productService = productService;
+    this.productCatalog = productCatalog;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    productService.rebuildCatalog();
+    logger.info("Catálogo em memória carregado com {} produtos.", productCatalog.current().size());
+  }
+}
@@ -0,0 +1,192 @@
+package tcc.product_service.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tcc.product_service.dto.ProductImportResultDTO;
+import tcc.product_service.model.Product;
+
+/**
+ * Importação em massa do catálogo a partir de CSV (formato do {@code produtos.csv}) ou NDJSON
+ * com os mesmos campos. A entrada é lida linha a linha e gravada em blocos; produtos com um
+ * nome já existente no catálogo são atualizados em vez de duplicados.
+ */
+@Service
+public class ProductImportService {
+
+  public enum Format {
+    CSV,
+    NDJSON
+  }
+
+  private final ProductService productService;
+  private final ObjectMapper objectMapper;
+  private final int chunkSize;
+  private final int maxReportedErrors;
+
+  public ProductImportService(
+      ProductService productService,
+      ObjectMapper objectMapper,
+      @Value("${products.import.chunk-size:1000}") int chunkSize,
+      @Value("${products.import.max-reported-errors:100}") int maxReportedErrors) {
+    this.productService = productService;
+    this.objectMapper = objectMapper;
+    this.chunkSize = chunkSize;
+    this.maxReportedErrors = maxReportedErrors;
+  }
+
+  public ProductImportResultDTO importProducts(Reader reader, Format format) throws IOException {
+    Progress progress = new Progress();
+    List<Row> chunk = new ArrayList<>(chunkSize);
+
+    BufferedReader lines = new BufferedReader(reader);
+    String line;
+    long lineNumber = 0;
+    while ((line = lines.readLine()) != null) {
+      lineNumber++;
+      if (line.isBlank() || (format == Format.CSV && lineNumber == 1 && isCsvHeader(line))) {
+        continue;
+      }
+
+      progress.rowsRead++;
+      try {
+        chunk.add(new Row(lineNumber, format == Format.CSV ? parseCsv(line) : parseNdjson(line)));
+      } catch (IOException | RuntimeException e) {
+        progress.fail(lineNumber, "Linha inválida: " + e.getMessage());
+      }
+
+      if (chunk.size() >= chunkSize) {
+        importChunk(chunk, progress);
+        chunk.clear();
+      }
+    }
+    if (!chunk.isEmpty()) {
+      importChunk(chunk, progress);
+    }
+
+    return progress.toResult();
+  }
+
+  private void importChunk(List<Row> chunk, Progress progress) {
+    List<Product> products = new ArrayList<>(chunk.size());
+    chunk.forEach(row -> products.add(row.product));
+    try {
+      int created = productService.upsertBatch(products);
+      progress.created += created;
+      progress.updated += products.size() - created;
+    } catch (RuntimeException e) {
+      chunk.forEach(row -> progress.fail(row.line, "Falha ao gravar o lote: " + e.getMessage()));
+    }
+  }
+
+  private Product parseCsv(String line) {
+    List<String> fields = splitCsvLine(line);
+    if (fields.size() != 3) {
+      throw new IllegalArgumentException(
+          "esperadas 3 colunas (productName, description, price), encontradas " + fields.size());
+    }
+    return toProduct(fields.get(0), fields.get(1), Double.valueOf(fields.get(2).trim()));
+  }
+
+  private Product parseNdjson(String line) throws IOException {
+    JsonNode node = objectMapper.readTree(line);
+    JsonNode name = node.hasNonNull("productName") ? node.get("productName") : node.get("name");
+    JsonNode description = node.get("description");
+    JsonNode price = node.get("price");
+    return toProduct(
+        name != null && !name.isNull() ? name.asText() : null,
+        description != null && !description.isNull() ? description.asText() : null,
+        price != null && price.isNumber() ? price.asDouble() : null);
+  }
+
+  private static Product toProduct(String name, String description, Double price) {
+    if (name == null || name.isBlank()) {
+      throw new IllegalArgumentException("produto sem nome");
+    }
+    if (price == null || price < 0) {
+      throw new IllegalArgumentException("preço ausente ou negativo");
+    }
+
+    Product product = new Product();
+    product.setName(name.trim());
+    product.setDescription(description);
+    product.setPrice(price);
+    return product;
+  }
+
+  private static boolean isCsvHeader(String line) {
+    return line.trim().toLowerCase().startsWith("productname");
+  }
+
+  /**
+   * Divide uma linha CSV em campos, respeitando campos entre aspas e aspas duplicadas.
+   */
+  private static List<String> splitCsvLine(String line) {
+    List<String> fields = new ArrayList<>(3);
+    StringBuilder current = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          current.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          current.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(current.toString());
+        current.setLength(0);
+      } else {
+        current.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("aspas não fechadas");
+    }
+    fields.add(current.toString());
+    return fields;
+  }
+
+  private static final class Row {
+    private final long line;
+    private final Product product;
+
+    private Row(long line, Product product) {
+      this.line = line;
+      this.product = product;
+    }
+  }
+
+  private final class Progress {
+    private final long start = System.currentTimeMillis();
+    private final List<ProductImportResultDTO.RowError> errors = new ArrayList<>();
+    private long rowsRead;
+    private long created;
+    private long updated;
+    private long failed;
+
+    private void fail(long line, String message) {
+      failed++;
+      // Apenas as primeiras falhas são detalhadas; as demais entram somente na contagem
+      if (errors.size() < maxReportedErrors) {
+        errors.add(new ProductImportResultDTO.RowError(line, message));
+      }
+    }
+
+    private ProductImportResultDTO toResult() {
+      return new ProductImportResultDTO(
+          rowsRead, created, updated, failed, System.currentTimeMillis() - start, errors);
+    }
+  }
+}
@@ -2,10 +2,29 @@ package tcc.product_service.service;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Counter;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tcc.product_service.catalog.CatalogSnapshot;
+import tcc.product_service.catalog.ProductBloomFilter;
+import tcc.product_service.catalog.ProductCatalog;
+import tcc.product_service.dto.CursorPageDTO;
+import tcc.product_service.dto.ProductValidationDTO;
 import tcc.product_service.model.Product;
 import tcc.product_service.repository.ProductRepository;
 
@@ -18,6 +37,18 @@ public class ProductService {
   @Autowired
   private ProductRepository productRepository;
 
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private ProductCatalog productCatalog;
+
+  @Value("${products.bloom-filter.false-positive-rate:0.01}")
+  private double bloomFilterFalsePositiveRate;
+
+  // Filtro de Bloom da última versão do catálogo pedida, refeito apenas quando a versão muda
+  private final AtomicReference<ProductBloomFilter> bloomFilter = new AtomicReference<>();
+
   private final Counter productCreateCounter;
   private final Counter productUpdateCounter;
   private final Counter productDeleteCounter;
@@ -37,31 +68,168 @@ public class ProductService {
     return productRepository.findById(id);
   }
 
+  public CursorPageDTO<Product> findPage(long afterId, int size) {
+    List<Product> products = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size));
+    Long nextCursor = products.size() < size ? null : products.get(products.size() - 1).getId();
+    return new CursorPageDTO<>(products, nextCursor);
+  }
+
+  /**
+   * Percorre todo o catálogo em ordem de id, entregando cada produto ao consumidor assim que
+   * é lido do banco e desanexando-o em seguida.
+   */
+  @Transactional(readOnly = true)
+  public void forEachProduct(Consumer<Product> consumer) {
+    try (Stream<Product> products = productRepository.streamAll()) {
+      products.forEach(product -> {
+        consumer.accept(product);
+        entityManager.detach(product);
+      });
+    }
+  }
+
   public Product save(Product product) {
     if (product.getId() == null) {
       productCreateCounter.increment();
     } else {
       productUpdateCounter.increment();
     }
-    return productRepository.save(product);
+    Product savedProduct = productRepository.save(product);
+    productCatalog.put(savedProduct);
+    return savedProduct;
+  }
+
+  /**
+   * Insere ou atualiza, em uma única transação, um lote de produtos identificados pelo nome.
+   * Os produtos existentes são carregados em uma só consulta e as escritas saem em lotes
+   * JDBC. Devolve o número de produtos criados; os demais foram atualizados.
+   */
+  @Transactional
+  public int upsertBatch(List<Product> products) {
+    Map<String, Product> existing = productRepository.findByNameIn(
+            products.stream().map(Product::getName).collect(Collectors.toSet()))
+        .stream()
+        .collect(Collectors.toMap(Product::getName, Function.identity(),
+            (first, duplicate) -> first.getId() < duplicate.getId() ? first : duplicate));
+
+    List<Product> created = new ArrayList<>();
+    List<Product> touched = new ArrayList<>();
+    for (Product product : products) {
+      Product current = existing.get(product.getName());
+      if (current == null) {
+        created.add(product);
+        touched.add(product);
+        existing.put(product.getName(), product);
+      } else {
+        current.setDescription(product.getDescription());
+        current.setPrice(product.getPrice());
+        touched.add(current);
+      }
+    }
+    productRepository.saveAll(created);
+    entityManager.flush();
+    entityManager.clear();
+
+    productCreateCounter.increment(created.size());
+    productUpdateCounter.increment(products.size() - created.size());
+    afterCommit(() -> productCatalog.putAll(touched));
+    return created.size();
   }
 
   public void deleteById(Long id) {
     productDeleteCounter.increment();
     productRepository.deleteById(id);
+    productCatalog.remove(id);
+  }
+
+  /**
+   * Carrega o catálogo em memória a partir do banco na inicialização, antes de o servidor web
+   * aceitar requisições ({@link ProductCatalogLoader}).
+   */
+  @Transactional(readOnly = true)
+  public void rebuildCatalog() {
+    Map<Long, String> displayNames = new HashMap<>();
+    forEachProduct(product ->
+        displayNames.put(product.getId(), ProductCatalog.displayName(product)));
+    productCatalog.replaceAll(displayNames);
   }
 
+  // Versão do catálogo: muda a cada alteração para que os consumidores invalidem seus caches
+  public long getCatalogVersion() {
+    return productCatalog.current().getVersion();
+  }
+
+  /**
+   * Indica se o produto existe, consultando apenas o catálogo em memória.
+   */
+  public boolean exists(long productId) {
+    return productCatalog.current().contains(productId);
+  }
+
+  /**
+   * Filtro de Bloom dos ids do catálogo atual, construído na primeira consulta após cada
+   * alteração do catálogo.
+   */
+  public ProductBloomFilter getBloomFilter() {
+    CatalogSnapshot catalog = productCatalog.current();
+    ProductBloomFilter filter = bloomFilter.get();
+    if (filter == null || filter.getVersion() != catalog.getVersion()) {
+      filter = ProductBloomFilter.of(catalog, bloomFilterFalsePositiveRate);
+      bloomFilter.set(filter);
+    }
+    return filter;
+  }
+
+  /**
+   * Nomes de exibição dos produtos existentes, lidos do catálogo em memória.
+   */
   public Map<Long, String> getProductNamesBatch(List<Long> productIds) {
-    List<Long> distinctIds = productIds.stream()
-        .distinct()
-        .collect(Collectors.toList());
+    return namesOf(productCatalog.current(), productIds);
+  }
 
-    return productRepository.findAllById(distinctIds)
-        .stream()
-        .collect(Collectors.toMap(
-            Product::getId,
-            product -> String.format("%s (%d)", product.getName(), product.getId()),
-            (existing, replacement) -> existing
-        ));
+  /**
+   * Valida e descreve um lote de produtos, devolvendo os nomes dos produtos encontrados e os
+   * códigos que não existem no catálogo. Nomes e versão vêm da mesma cópia do catálogo.
+   */
+  public ProductValidationDTO validateBatch(List<Long> productIds) {
+    CatalogSnapshot catalog = productCatalog.current();
+    Map<Long, String> names = namesOf(catalog, productIds);
+
+    Set<Long> missing = new LinkedHashSet<>();
+    for (Long productId : productIds) {
+      if (!names.containsKey(productId)) {
+        missing.add(productId);
+      }
+    }
+
+    return new ProductValidationDTO(names, new ArrayList<>(missing), catalog.getVersion());
+  }
+
+  private static Map<Long, String> namesOf(CatalogSnapshot catalog, List<Long> productIds) {
+    Map<Long, String> names = new HashMap<>();
+    for (Long productId : productIds) {
+      String name = productId != null ? catalog.nameOf(productId) : null;
+      if (name != null) {
+        names.put(productId, name);
+      }
+    }
+    return names;
+  }
+
+  /**
+   * Executa a ação depois do commit da transação corrente, para que o catálogo em memória
+   * nunca exponha uma alteração desfeita; sem transação, executa imediatamente.
+   */
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
   }
 }
\ No newline at end of file
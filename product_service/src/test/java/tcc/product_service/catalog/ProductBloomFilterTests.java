@@ -0,0 +1,35 @@
+package tcc.product_service.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Fixa o formato serializado e o cálculo de hash do filtro de Bloom. Os mesmos bytes são lidos
+ * no teste do order_service ({@code tcc.order_service.cache.ProductBloomFilterTests}): qualquer
+ * alteração aqui precisa ser feita nos dois serviços.
+ */
+class ProductBloomFilterTests {
+
+  // Catálogo com os ids 1..20 na versão 7, taxa de falsos positivos de 1%: k = 7, 3 palavras
+  private static final String CATALOG_1_TO_20_V7 = "0000000000000007" + "00000007" + "00000003"
+      + "5528fcdc1ec4f1d2" + "742f526a224f35b0" + "5bf06856bbf9429c";
+
+  @Test
+  void serializesCatalogInSharedWireFormat() {
+    Map<Long, String> names = new HashMap<>();
+    for (long id = 1; id <= 20; id++) {
+      names.put(id, "Produto " + id);
+    }
+    CatalogSnapshot catalog = CatalogSnapshot.empty(6).with(names, Set.of(), 7);
+
+    ProductBloomFilter filter = ProductBloomFilter.of(catalog, 0.01);
+
+    assertThat(filter.getVersion()).isEqualTo(7);
+    assertThat(HexFormat.of().formatHex(filter.getBytes())).isEqualTo(CATALOG_1_TO_20_V7);
+  }
+}